@@ -5,14 +5,12 @@ import android.animation.Animator.AnimatorListener;
 import android.animation.TimeInterpolator;
 import android.animation.ValueAnimator;
 import android.graphics.Rect;
-import android.os.Build;
 import android.view.animation.DecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
 
 import androidx.annotation.FloatRange;
 import androidx.annotation.NonNull;
-import androidx.annotation.RequiresApi;
 
-import com.aiqfome.aiqchart.model.ChartEntry;
 import com.aiqfome.aiqchart.model.ChartSet;
 import com.aiqfome.aiqchart.view.ChartView;
 
@@ -88,9 +86,58 @@ public class Animation {
     private float mAnimateOverlapFactor;
 
     /**
-     * List of {@link ValueAnimator} objects for a given on going animation
+     * Single animator driving every entry, set alpha and entry color
      */
-    private ArrayList<ValueAnimator> mAnimators;
+    private ValueAnimator mAnimator;
+
+    private int mNSets;
+
+    private int mNEntries;
+
+    /**
+     * Start and end display coordinates, indexed by (set * number of entries + entry) * 2
+     */
+    private float[] mStartCoords;
+
+    private float[] mEndCoords;
+
+    /**
+     * Alpha of each set and color of each entry to animate to
+     */
+    private float[] mEndAlphas;
+
+    private int[] mEndColors;
+
+    /**
+     * Color of each entry for the current frame, indexed as the end colors
+     */
+    private int[] mColors;
+
+    /**
+     * Delay of each entry and duration of every entry animation
+     */
+    private long[] mDelays;
+
+    private long mEntryDuration;
+
+    private long mTotalDuration;
+
+    /**
+     * Time of the last update applied
+     */
+    private float mTime;
+
+    /**
+     * Updates every entry according to the driver's progress
+     */
+    private final ValueAnimator.AnimatorUpdateListener mUpdateListener =
+            new ValueAnimator.AnimatorUpdateListener() {
+                @Override
+                public void onAnimationUpdate(ValueAnimator animation) {
+                    update(animation.getAnimatedFraction() * mTotalDuration);
+                    mCallback.onAnimationUpdate(mData);
+                }
+            };
 
     /**
      * Animation listener set to executed animation end action
@@ -103,8 +150,12 @@ public class Animation {
 
         @Override
         public void onAnimationEnd(Animator animator) {
-            cancel();
-            mAnimators.clear();
+            // When cancelled, entries are left at their end position. Otherwise the
+            // last update already applied the final frame.
+            if (mTime < mTotalDuration) {
+                update(mTotalDuration);
+                mCallback.onAnimationUpdate(mData);
+            }
             if (mEndAction != null) mEndAction.run();
         }
 
@@ -131,7 +182,11 @@ public class Animation {
 
     private void init(int duration) {
 
-        mAnimators = new ArrayList<>();
+        mStartCoords = new float[0];
+        mEndCoords = new float[0];
+        mEndAlphas = new float[0];
+        mEndColors = new int[0];
+        mColors = new int[0];
         mDuration = duration;
         mAlpha = 1;
         mColor = -1;
@@ -153,38 +208,35 @@ public class Animation {
 
         mData = chartView.getData();
 
-        int nSets = mData.size();
-        int nEntries = mData.get(0).size();
+        final int nSets = mData.size();
+        final int nEntries = mData.get(0).size();
+        ensureCapacity(nSets, nEntries);
 
-        ArrayList<float[][]> startValues = new ArrayList<>(nSets);
-        ArrayList<float[][]> endValues = new ArrayList<>(nSets);
-        float[][] startCoords;
-        float[][] endCoords;
+        final boolean isVertical = chartView.getOrientation() == ChartView.Orientation.VERTICAL;
+        final float zero = chartView.getZeroPosition();
+        float[] start = mIsEntering ? mStartCoords : mEndCoords;
+        float[] end = mIsEntering ? mEndCoords : mStartCoords;
+        ChartSet set;
+        int k;
         for (int i = 0; i < nSets; i++) {
 
-            startCoords = new float[nEntries][2];
-            endCoords = mData.get(i).getScreenPoints();
+            set = mData.get(i);
             for (int j = 0; j < nEntries; j++) {
 
-                startCoords[j][0] = chartView.getOrientation() == ChartView.Orientation.VERTICAL
-                        ? mData.get(i).getEntry(j).getX() : chartView.getZeroPosition();
-
-                startCoords[j][1] = chartView.getOrientation() == ChartView.Orientation.HORIZONTAL
-                        ? mData.get(i).getEntry(j).getY() : chartView.getZeroPosition();
+                k = (i * nEntries + j) * 2;
+                end[k] = set.getX(j);
+                end[k + 1] = set.getY(j);
+                start[k] = isVertical ? set.getX(j) : zero;
+                start[k + 1] = isVertical ? zero : set.getY(j);
             }
-
-            startValues.add(startCoords);
-            endValues.add(endCoords);
         }
 
-        startValues = applyStartingPosition(startValues,
+        applyStartingPosition(start, nSets * nEntries,
                 new Rect((int) chartView.getInnerChartLeft(), (int) chartView.getInnerChartTop(),
                         (int) chartView.getInnerChartRight(), (int) chartView.getInnerChartBottom()),
                 mStartXFactor, mStartYFactor);
 
-        if (mIsEntering) return animate(startValues, endValues);
-        else return animate(endValues, startValues);
-
+        return animate();
     }
 
 
@@ -215,7 +267,43 @@ public class Animation {
     public ArrayList<ChartSet> prepareUpdateAnimation(ArrayList<float[][]> start,
                                                       ArrayList<float[][]> end) {
 
-        return animate(start, end);
+        final int nSets = start.size();
+        final int nEntries = start.get(0).length;
+        ensureCapacity(nSets, nEntries);
+
+        int k;
+        for (int i = 0; i < nSets; i++)
+            for (int j = 0; j < nEntries; j++) {
+                k = (i * nEntries + j) * 2;
+                mStartCoords[k] = start.get(i)[j][0];
+                mStartCoords[k + 1] = start.get(i)[j][1];
+                mEndCoords[k] = end.get(i)[j][0];
+                mEndCoords[k + 1] = end.get(i)[j][1];
+            }
+
+        return animate();
+    }
+
+
+    /**
+     * Method that prepares the update animation of the data already being animated.
+     * Coordinates are copied, so given buffers can be reused by the caller.
+     *
+     * @param start Animation start display coordinates, indexed by
+     *              (set * number of entries + entry) * 2
+     * @param end   Animation end display coordinates, indexed the same way
+     * @return Initial chart data state before starting animation
+     */
+    public ArrayList<ChartSet> prepareUpdateAnimation(@NonNull float[] start,
+                                                      @NonNull float[] end) {
+
+        ensureCapacity(mData.size(), mData.get(0).size());
+
+        final int size = mNSets * mNEntries * 2;
+        System.arraycopy(start, 0, mStartCoords, 0, size);
+        System.arraycopy(end, 0, mEndCoords, 0, size);
+
+        return animate();
     }
 
 
@@ -237,7 +325,8 @@ public class Animation {
     /**
      * Set a specific starting position for the animation.
      *
-     * @param values       Values containing current start position
+     * @param values       Coordinates containing current start position, X and Y interleaved
+     * @param size         Number of points in values
      * @param area         Chart's inner area
      * @param xStartFactor Factor from 0 to 1 specifying the X chart coordinate where animation
      *                     should start
@@ -245,100 +334,149 @@ public class Animation {
      *                     should start
      * @return Given values modified with new starting position.
      */
-    ArrayList<float[][]> applyStartingPosition(ArrayList<float[][]> values, Rect area,
-                                               float xStartFactor, float yStartFactor) {
+    float[] applyStartingPosition(float[] values, int size, Rect area, float xStartFactor,
+                                  float yStartFactor) {
 
-        for (int i = 0; i < values.size(); i++) {
-            for (int j = 0; j < values.get(i).length; j++) {
-                if (xStartFactor != -1)
-                    values.get(i)[j][0] = area.left + (area.right - area.left) * xStartFactor;
-                if (yStartFactor != -1)
-                    values.get(i)[j][1] = area.bottom - (area.bottom - area.top) * yStartFactor;
-            }
+        for (int i = 0; i < size; i++) {
+            if (xStartFactor != -1)
+                values[i * 2] = area.left + (area.right - area.left) * xStartFactor;
+            if (yStartFactor != -1)
+                values[i * 2 + 1] = area.bottom - (area.bottom - area.top) * yStartFactor;
         }
         return values;
     }
 
 
     /**
-     * Method that prepares the animation. Defines starting points, targets,
-     * distance, yadda, as well as the first set of points to be drawn.
-     *
-     * @param start X and Y start coordinates
-     * @param end   X and Y end coordinates
-     * @return Array of {@link ChartSet} containing the first values to be drawn.
+     * Makes sure buffers are able to hold the given number of sets and entries.
      */
-    private ArrayList<ChartSet> animate(ArrayList<float[][]> start, ArrayList<float[][]> end) {
+    private void ensureCapacity(int nSets, int nEntries) {
 
-        ValueAnimator animator;
+        mNSets = nSets;
+        mNEntries = nEntries;
 
-        mAnimators.addAll(animateEntries(start, end));
+        final int size = nSets * nEntries;
+        if (mStartCoords.length < size * 2) {
+            mStartCoords = new float[size * 2];
+            mEndCoords = new float[size * 2];
+        }
+        if (mEndColors.length < size) {
+            mEndColors = new int[size];
+            mColors = new int[size];
+        }
+        if (mEndAlphas.length < nSets) mEndAlphas = new float[nSets];
+    }
+
+
+    /**
+     * Starts animating data from the start to the end coordinates already in the buffers.
+     * A single animator drives the whole animation, each frame every entry is interpolated
+     * according to its own delay.
+     *
+     * @return Array of {@link ChartSet} containing the first values to be drawn.
+     */
+    private ArrayList<ChartSet> animate() {
 
-        for (ChartSet set : mData) { // Animate alpha
-            animator = set.animateAlpha(mAlpha, set.getAlpha());
-            animator.setDuration(mDuration);
-            animator.setInterpolator(mInterpolator);
-            mAnimators.add(animator);
+        // A new animation takes over the entries of any on going one
+        if (mAnimator != null) {
+            mAnimator.removeAllListeners();
+            mAnimator.removeAllUpdateListeners();
+            mAnimator.cancel();
         }
 
-        if (mColor != -1 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) // Animate color
-            for (ChartSet set : mData)
-                for (ChartEntry entry : set.getEntries()) {
-                    animator = entry.animateColor(mColor, entry.getColor());
-                    animator.setDuration(mDuration);
-                    animator.setInterpolator(mInterpolator);
-                    mAnimators.add(animator);
-                }
+        mEntryDuration = calculateEntriesDuration(mNEntries, mDuration, mAnimateOverlapFactor);
+        mDelays = calculateEntriesInitTime(mNEntries, mDuration, mAnimateOverlapFactor, mOrder);
 
         long maxDelay = 0;
-        for (ValueAnimator e : mAnimators) {
-            if (maxDelay < e.getStartDelay())
-                maxDelay = e.getStartDelay();
-            e.start();
+        for (int j = 0; j < mNEntries; j++)
+            maxDelay = Math.max(maxDelay, mDelays[j]);
+        mTotalDuration = Math.max(mDuration, maxDelay + mEntryDuration);
+
+        ChartSet set;
+        for (int i = 0; i < mNSets; i++) {
+            set = mData.get(i);
+            mEndAlphas[i] = set.getAlpha();
+            if (mColor != -1) set.getColors(0, mNEntries, mEndColors, i * mNEntries);
         }
 
-        animator = ValueAnimator.ofInt(0, 1); // Fuehrer
-        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                mCallback.onAnimationUpdate(mData);
-            }
-        });
-        animator.addListener(mAnimatorListener);
-        animator.setDuration(mDuration + maxDelay);
-        animator.start();
+        update(0);
+
+        // Driver runs linearly, interpolation is applied to each entry
+        mAnimator = ValueAnimator.ofFloat(0, 1);
+        mAnimator.setInterpolator(new LinearInterpolator());
+        mAnimator.setDuration(mTotalDuration);
+        mAnimator.addUpdateListener(mUpdateListener);
+        mAnimator.addListener(mAnimatorListener);
+        mAnimator.start();
 
         return mData;
     }
 
 
     /**
-     * Animate entries in sequence. In this case a {@link ValueAnimator} will be created for each chart entry.
+     * Updates every entry, set alpha and entry color to the given animation time.
      *
-     * @param start Animation start values
-     * @param end   Animation end values
-     * @return List of animators to animate each entry.
+     * @param time Time elapsed since animation start
      */
-    private ArrayList<ValueAnimator> animateEntries(ArrayList<float[][]> start, ArrayList<float[][]> end) {
+    private void update(float time) {
 
-        final int nSets = start.size();
-        final int nEntries = start.get(0).length;
+        mTime = time;
+        final float globalFraction = mInterpolator.getInterpolation(
+                (mDuration > 0) ? Math.min(time / mDuration, 1) : 1);
 
-        ArrayList<ValueAnimator> result = new ArrayList<>(nSets * nEntries);
+        float fraction;
+        int k;
+        for (int j = 0; j < mNEntries; j++) {
 
-        long duration = calculateEntriesDuration(nEntries, mDuration, mAnimateOverlapFactor);
-        long[] delays = calculateEntriesInitTime(nEntries, mDuration, mAnimateOverlapFactor, mOrder);
-        ValueAnimator animator;
-        for (int i = 0; i < nSets; i++)
-            for (int j = 0; j < nEntries; j++) {
+            fraction = (mEntryDuration > 0) ? (time - mDelays[j]) / mEntryDuration : 1;
+            fraction = mInterpolator.getInterpolation(Math.max(0, Math.min(fraction, 1)));
 
-                animator = mData.get(i).getEntry(j).animateXY(start.get(i)[j][0], start.get(i)[j][1],
-                        end.get(i)[j][0], end.get(i)[j][1]);
-                animator.setStartDelay(delays[j]);
-                animator.setDuration(duration);
-                animator.setInterpolator(mInterpolator);
-                result.add(animator);
+            for (int i = 0; i < mNSets; i++) {
+
+                k = (i * mNEntries + j) * 2;
+
+                // Entries not moving, such as the ones not updated, are left untouched
+                if (mStartCoords[k] == mEndCoords[k] && mStartCoords[k + 1] == mEndCoords[k + 1])
+                    continue;
+
+                mData.get(i).setCoordinates(j,
+                        mStartCoords[k] + (mEndCoords[k] - mStartCoords[k]) * fraction,
+                        mStartCoords[k + 1] + (mEndCoords[k + 1] - mStartCoords[k + 1]) * fraction);
             }
+        }
+
+        if (mAlpha != -1) // Animate alpha
+            for (int i = 0; i < mNSets; i++)
+                mData.get(i).setAlpha(mAlpha + (mEndAlphas[i] - mAlpha) * globalFraction);
+
+        if (mColor != -1) { // Animate color
+            final int size = mNSets * mNEntries;
+            for (int n = 0; n < size; n++)
+                mColors[n] = blendColor(mColor, mEndColors[n], globalFraction);
+            for (int i = 0; i < mNSets; i++)
+                mData.get(i).setAnimatedColors(0, mNEntries, mColors, i * mNEntries);
+        }
+    }
+
+
+    /**
+     * Interpolates each ARGB channel between two colors.
+     *
+     * @param from     Start color
+     * @param to       End color
+     * @param fraction Fraction between both colors
+     * @return Interpolated color.
+     */
+    static int blendColor(int from, int to, float fraction) {
+
+        int result = 0;
+        int a;
+        int b;
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            a = (from >>> shift) & 0xFF;
+            b = (to >>> shift) & 0xFF;
+            result |= (a + Math.round((b - a) * fraction)) << shift;
+        }
         return result;
     }
 
@@ -357,19 +495,14 @@ public class Animation {
         if (overlapFactor != 1)
             duration = (long) (duration + duration * overlapFactor);
 
-        if (order == null) {
-            order = new int[size];
-            for (int i = 0; i < size; i++)
-                order[i] = i;
-        }
-
-        long[] result = new long[size];
+        long[] result = (mDelays != null && mDelays.length >= size) ? mDelays : new long[size];
         long noOverlapInitTime;
         for (int i = 0; i < size; i++) {
             // Calculates the expected init time as there was with no overlap (factor = 0)
             noOverlapInitTime = i * (duration / size);
             // Adjust the init time to overlap
-            result[order[i]] = (noOverlapInitTime - ((long) (overlapFactor * noOverlapInitTime)));
+            result[(order != null) ? order[i] : i] =
+                    (noOverlapInitTime - ((long) (overlapFactor * noOverlapInitTime)));
         }
         return result;
     }
@@ -394,25 +527,22 @@ public class Animation {
 
     /**
      * Information on animation is still on going on not.
+     * Once its final frame is applied the animation isn't playing anymore.
      *
      * @return True if animation is running, False otherwise.
      */
     public boolean isPlaying() {
 
-        for (ValueAnimator animator : mAnimators)
-            if (animator.isRunning())
-                return true;
-        return false;
+        return mAnimator != null && mAnimator.isRunning() && mTime < mTotalDuration;
     }
 
 
     /**
-     * Cancel every running animator.
+     * Cancel the running animation.
      */
     public void cancel() {
 
-        for (ValueAnimator animator : mAnimators)
-            animator.cancel();
+        if (mAnimator != null) mAnimator.cancel();
     }
 
 
@@ -547,7 +677,6 @@ public class Animation {
      * @param color Color to animate from
      * @return {@link com.aiqfome.aiqchart.animation.Animation} self-reference.
      */
-    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
     public Animation fromColor(int color) {
 
         mColor = color;
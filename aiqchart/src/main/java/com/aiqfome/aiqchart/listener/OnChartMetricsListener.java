@@ -0,0 +1,40 @@
+package com.aiqfome.aiqchart.listener;
+
+
+/**
+ * Interface to define a listener receiving rendering metrics of a chart.
+ * Times are measured only while a listener is registered and are given in nanoseconds.
+ */
+public interface OnChartMetricsListener {
+
+    /**
+     * Called once the chart has been laid out, before being drawn.
+     * When the chart is shown asynchronously times are measured in the executor,
+     * and reported from the UI thread once the layout is swapped in.
+     *
+     * @param styleTime     time spent initializing the style
+     * @param renderersTime time spent initializing, measuring and disposing axis renderers
+     * @param digestTime    time spent converting values into screen coordinates
+     * @param regionsTime   time spent defining clickable regions
+     */
+    void onLayout(long styleTime, long renderersTime, long digestTime, long regionsTime);
+
+    /**
+     * Called every time the chart data is drawn.
+     *
+     * @param drawChartTime time spent drawing data, axis excluded
+     * @param entriesDrawn  number of entries drawn
+     * @param entriesCulled number of entries skipped for being outside the chart area
+     *                      or discarded by downsampling
+     */
+    void onDraw(long drawChartTime, int entriesDrawn, int entriesCulled);
+
+    /**
+     * Called once an animation finishes.
+     *
+     * @param updates number of animation updates
+     * @param frames  number of frames drawn while animating
+     */
+    void onAnimationEnd(int updates, int frames);
+
+}
@@ -24,6 +24,11 @@ public abstract class ChartEntry implements Comparable<ChartEntry> {
 
     boolean isVisible;
 
+    /**
+     * Set the entry was added to, notified of value changes to keep its extremes up to date
+     */
+    ChartSet owner;
+
     /**
      * Input from user
      */
@@ -119,12 +124,11 @@ public abstract class ChartEntry implements Comparable<ChartEntry> {
         animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
             @Override
             public void onAnimationUpdate(ValueAnimator animation) {
-                mX = (float) animation.getAnimatedValue("x");
-                mY = (float) animation.getAnimatedValue("y");
+                setCoordinates((float) animation.getAnimatedValue("x"),
+                        (float) animation.getAnimatedValue("y"));
             }
         });
-        mX = x0;
-        mY = y0;
+        setCoordinates(x0, y0);
         return animator;
     }
 
@@ -174,6 +178,18 @@ public abstract class ChartEntry implements Comparable<ChartEntry> {
      */
     public void setValue(float value) {
 
+        final float oldValue = mValue;
+        mValue = value;
+        if (owner != null && oldValue != value) owner.onEntryValueChanged(this, oldValue, value);
+    }
+
+    /**
+     * Set new entry value without notifying the set, for changes made by the set itself.
+     *
+     * @param value New value
+     */
+    void assignValue(float value) {
+
         mValue = value;
     }
 
@@ -203,6 +219,16 @@ public abstract class ChartEntry implements Comparable<ChartEntry> {
         mColor = color;
     }
 
+    /**
+     * Define the color of the entry while animating, without changing its visibility.
+     *
+     * @param color Color to be set.
+     */
+    public void setAnimatedColor(@ColorInt int color) {
+
+        mColor = color;
+    }
+
     public float getShadowRadius() {
 
         return mShadowRadius;
@@ -240,6 +266,7 @@ public abstract class ChartEntry implements Comparable<ChartEntry> {
 
         mX = x;
         mY = y;
+        if (owner != null) owner.onCoordinatesChanged();
     }
 
 
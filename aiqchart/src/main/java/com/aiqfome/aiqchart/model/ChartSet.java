@@ -6,7 +6,6 @@ import androidx.annotation.FloatRange;
 import androidx.annotation.NonNull;
 
 import java.util.ArrayList;
-import java.util.Collections;
 
 import static com.aiqfome.aiqchart.util.Preconditions.checkNotNull;
 import static com.aiqfome.aiqchart.util.Preconditions.checkPositionIndex;
@@ -38,11 +37,40 @@ public abstract class ChartSet {
     private boolean mIsVisible;
 
 
+    /**
+     * Range of entries whose value changed since last time the set was drawn
+     */
+    private int mDirtyBegin;
+
+    private int mDirtyEnd;
+
+    /**
+     * Incremented every time display coordinates of the set's entries change
+     */
+    private int mCoordinatesVersion;
+
+
+    /**
+     * Running extremes of the set's values and their indexes, kept up to date as values
+     * are added or changed. Only valid if mHasExtremes, otherwise found again on demand.
+     */
+    private float mMaxValue;
+
+    private float mMinValue;
+
+    private int mMaxIndex;
+
+    private int mMinIndex;
+
+    private boolean mHasExtremes;
+
+
     ChartSet() {
 
         mEntries = new ArrayList<>();
         mAlpha = 1;
         mIsVisible = false;
+        clearDirty();
     }
 
 
@@ -54,6 +82,8 @@ public abstract class ChartSet {
     void addEntry(@NonNull ChartEntry e) {
 
         mEntries.add(checkNotNull(e));
+        e.owner = this;
+        onValueAdded(mEntries.size() - 1, e.getValue());
     }
 
 
@@ -167,7 +197,8 @@ public abstract class ChartSet {
      */
     public ChartEntry getMax() {
 
-        return Collections.max(mEntries);
+        if (!mHasExtremes) findExtremes();
+        return getEntry(mMaxIndex);
     }
 
 
@@ -178,7 +209,155 @@ public abstract class ChartSet {
      */
     public ChartEntry getMin() {
 
-        return Collections.min(mEntries);
+        if (!mHasExtremes) findExtremes();
+        return getEntry(mMinIndex);
+    }
+
+
+    /**
+     * Get the highest value of the set, without scanning its entries unless
+     * the previous highest value was changed.
+     *
+     * @return Highest value, negative infinity if the set is empty.
+     */
+    public float getMaxValue() {
+
+        if (!mHasExtremes) findExtremes();
+        return mMaxValue;
+    }
+
+
+    /**
+     * Get the lowest value of the set, without scanning its entries unless
+     * the previous lowest value was changed.
+     *
+     * @return Lowest value, positive infinity if the set is empty.
+     */
+    public float getMinValue() {
+
+        if (!mHasExtremes) findExtremes();
+        return mMinValue;
+    }
+
+
+    /**
+     * Scans all values to find the extremes.
+     */
+    private void findExtremes() {
+
+        mMaxValue = Float.NEGATIVE_INFINITY;
+        mMinValue = Float.POSITIVE_INFINITY;
+        mMaxIndex = 0;
+        mMinIndex = 0;
+        float value;
+        for (int i = 0; i < size(); i++) {
+            value = getValue(i);
+            if (value > mMaxValue) {
+                mMaxValue = value;
+                mMaxIndex = i;
+            }
+            if (value < mMinValue) {
+                mMinValue = value;
+                mMinIndex = i;
+            }
+        }
+        mHasExtremes = true;
+    }
+
+
+    /**
+     * Notes display coordinates of the set's entries changed.
+     */
+    void onCoordinatesChanged() {
+
+        mCoordinatesVersion++;
+    }
+
+
+    /**
+     * Version of the set's display coordinates, which changes every time any of them does.
+     * Lets anything built from the coordinates know whether it's still up to date.
+     *
+     * @return Version of the display coordinates.
+     */
+    public int getCoordinatesVersion() {
+
+        return mCoordinatesVersion;
+    }
+
+
+    /**
+     * Keeps extremes up to date with a new value.
+     *
+     * @param index Index of the new entry
+     * @param value New entry's value
+     */
+    void onValueAdded(int index, float value) {
+
+        if (!mHasExtremes) return;
+        if (value > mMaxValue) {
+            mMaxValue = value;
+            mMaxIndex = index;
+        }
+        if (value < mMinValue) {
+            mMinValue = value;
+            mMinIndex = index;
+        }
+    }
+
+
+    /**
+     * Keeps extremes up to date with a changed value. If an extreme moves towards
+     * the other values, extremes have to be found again.
+     *
+     * @param index    Index of the changed entry
+     * @param oldValue Previous value
+     * @param value    New value
+     */
+    void onValueChanged(int index, float oldValue, float value) {
+
+        if (!mHasExtremes) return;
+        if (index == mMaxIndex && value < oldValue || index == mMinIndex && value > oldValue)
+            mHasExtremes = false;
+        else onValueAdded(index, value);
+    }
+
+
+    /**
+     * Keeps extremes up to date with a value changed directly through the entry,
+     * whose index isn't known. Extremes have to be found again unless the change
+     * leaves them as they were, and the whole set is flagged as changed.
+     *
+     * @param entry    Changed entry
+     * @param oldValue Previous value
+     * @param value    New value
+     */
+    void onEntryValueChanged(ChartEntry entry, float oldValue, float value) {
+
+        markDirty(0);
+        markDirty(size() - 1);
+
+        if (!mHasExtremes) return;
+        if (value > mMaxValue || value < mMinValue
+                || value < oldValue && getEntry(mMaxIndex) == entry
+                || value > oldValue && getEntry(mMinIndex) == entry)
+            mHasExtremes = false;
+    }
+
+
+    /**
+     * Keeps extremes up to date once the first entry is dropped and all the others
+     * moved one index down.
+     */
+    void onFirstValueRemoved() {
+
+        if (!mHasExtremes) return;
+        if (mMaxIndex == 0 || mMinIndex == 0) {
+            mHasExtremes = false;
+        } else {
+            mMaxIndex--;
+            mMinIndex--;
+        }
     }
 
 
@@ -192,14 +371,158 @@ public abstract class ChartSet {
         int nEntries = size();
         float[][] result = new float[nEntries][2];
         for (int i = 0; i < nEntries; i++) {
-            result[i][0] = mEntries.get(i).getX();
-            result[i][1] = mEntries.get(i).getY();
+            result[i][0] = getX(i);
+            result[i][1] = getY(i);
         }
 
         return result;
     }
 
 
+    /**
+     * Get screen points into a flat buffer, x and y of each entry interleaved.
+     *
+     * @param dest Buffer to be reused, may be null or too small in which case a new one is created
+     * @return Buffer containing display coordinates of all entries.
+     */
+    public float[] getScreenPoints(float[] dest) {
+
+        int nEntries = size();
+        float[] result = dest;
+        if (result == null || result.length < nEntries * 2) result = new float[nEntries * 2];
+        for (int i = 0; i < nEntries; i++) {
+            result[i * 2] = getX(i);
+            result[i * 2 + 1] = getY(i);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Get display x coordinate of the entry at specific index.
+     *
+     * @param index Entry's index
+     * @return Display x coordinate.
+     */
+    public float getX(int index) {
+
+        return getEntry(index).getX();
+    }
+
+
+    /**
+     * Get display y coordinate of the entry at specific index.
+     *
+     * @param index Entry's index
+     * @return Display y coordinate.
+     */
+    public float getY(int index) {
+
+        return getEntry(index).getY();
+    }
+
+
+    /**
+     * Set the parsed display coordinates of the entry at specific index.
+     *
+     * @param index Entry's index
+     * @param x     display x coordinate.
+     * @param y     display y coordinate.
+     */
+    public void setCoordinates(int index, float x, float y) {
+
+        getEntry(index).setCoordinates(x, y);
+    }
+
+
+    /**
+     * Copy the values of a range of entries into a buffer, each at its entry's index.
+     *
+     * @param begin Index of the first entry
+     * @param end   Index after the last entry
+     * @param dest  Buffer at least end long
+     */
+    public void getValues(int begin, int end, float[] dest) {
+
+        for (int i = begin; i < end; i++)
+            dest[i] = mEntries.get(i).getValue();
+    }
+
+
+    /**
+     * Set the parsed display coordinates of a range of entries, each taken from its
+     * entry's index in the buffers.
+     *
+     * @param begin Index of the first entry
+     * @param end   Index after the last entry
+     * @param x     display x coordinates.
+     * @param y     display y coordinates.
+     */
+    public void setCoordinates(int begin, int end, float[] x, float[] y) {
+
+        for (int i = begin; i < end; i++)
+            mEntries.get(i).setCoordinates(x[i], y[i]);
+    }
+
+
+    /**
+     * Copy of the set's values, labels and visibility, detached from the set. The copy has
+     * display coordinates of its own, so it can be laid out from another thread while this
+     * set keeps changing. Entries aren't copied, the copy is only accessed by index.
+     * Must be called from the thread the set is modified from.
+     *
+     * @return Detached copy of the set.
+     */
+    public ChartSet snapshot() {
+
+        return new SetSnapshot(this);
+    }
+
+
+    /**
+     * Copy the colors of a range of entries into a buffer.
+     *
+     * @param begin  Index of the first entry
+     * @param end    Index after the last entry
+     * @param dest   Buffer receiving the colors
+     * @param offset Position in the buffer of the first entry's color
+     */
+    public void getColors(int begin, int end, int[] dest, int offset) {
+
+        for (int i = begin; i < end; i++)
+            dest[offset + i - begin] = mEntries.get(i).getColor();
+    }
+
+
+    /**
+     * Set the colors of a range of entries while animating, without changing their visibility.
+     *
+     * @param begin  Index of the first entry
+     * @param end    Index after the last entry
+     * @param colors Buffer holding the colors
+     * @param offset Position in the buffer of the first entry's color
+     */
+    public void setAnimatedColors(int begin, int end, int[] colors, int offset) {
+
+        for (int i = begin; i < end; i++)
+            mEntries.get(i).setAnimatedColor(colors[offset + i - begin]);
+    }
+
+
+    /**
+     * If any of the set entries has shadow.
+     *
+     * @return True if at least one entry has shadow defined, False otherwise.
+     */
+    public boolean hasEntriesShadow() {
+
+        for (ChartEntry e : mEntries)
+            if (e.hasShadow()) return true;
+        return false;
+    }
+
+
     /**
      * Get current set's alpha.
      *
@@ -254,9 +577,61 @@ public abstract class ChartSet {
      *
      * @param index Value's index where value will be placed
      */
-    private void setValue(int index, float value) {
+    void setValue(int index, float value) {
+
+        ChartEntry entry = mEntries.get(checkPositionIndex(index, size()));
+        if (entry.getValue() != value) {
+            markDirty(index);
+            onValueChanged(index, entry.getValue(), value);
+        }
+        entry.assignValue(value);
+    }
+
+    /**
+     * Flag the entry at specific index as changed.
+     *
+     * @param index Changed entry's index
+     */
+    void markDirty(int index) {
+
+        if (mDirtyBegin > index) mDirtyBegin = index;
+        if (mDirtyEnd < index + 1) mDirtyEnd = index + 1;
+    }
+
+    /**
+     * If any entry value changed, through {@link #updateValues(float[])} or through
+     * the entry itself, since the last time changes were cleared.
+     *
+     * @return True if set has changed entries, False otherwise.
+     */
+    public boolean isDirty() {
+
+        return mDirtyBegin < mDirtyEnd;
+    }
+
+    /**
+     * @return Index of the first changed entry.
+     */
+    public int getDirtyBegin() {
+
+        return mDirtyBegin;
+    }
+
+    /**
+     * @return Index after the last changed entry.
+     */
+    public int getDirtyEnd() {
+
+        return mDirtyEnd;
+    }
+
+    /**
+     * Mark all entries as unchanged.
+     */
+    public void clearDirty() {
 
-        mEntries.get(checkPositionIndex(index, size())).setValue(value);
+        mDirtyBegin = Integer.MAX_VALUE;
+        mDirtyEnd = 0;
     }
 
     /**
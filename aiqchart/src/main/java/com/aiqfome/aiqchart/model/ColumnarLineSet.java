@@ -0,0 +1,524 @@
+package com.aiqfome.aiqchart.model;
+
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.FloatRange;
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static com.aiqfome.aiqchart.util.Preconditions.checkNotNull;
+import static com.aiqfome.aiqchart.util.Preconditions.checkPositionIndex;
+
+
+/**
+ * {@link LineSet} storing values, labels and display coordinates in primitive arrays,
+ * meant for sets with a large number of entries.
+ * Dots share a single style and {@link Point} objects are only created when requested
+ * through {@link #getEntry(int)} or {@link #getEntries()}.
+ */
+public class ColumnarLineSet extends LineSet {
+
+    private static final String TAG = "chart.model.ColumnarLineSet";
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Entries data, together with Y coordinates, stored as a ring starting at mHead
+     */
+    private String[] mLabels;
+
+    private float[] mValues;
+
+    /**
+     * Display coordinates
+     */
+    private float[] mX;
+
+    private float[] mY;
+
+    private int mSize;
+
+    private int mHead;
+
+    /**
+     * Points already requested, null where not yet created
+     */
+    private Point[] mPoints;
+
+    /**
+     * Style shared by all dots
+     */
+    private final Point mDotStyle;
+
+    private int mDotShadowColor;
+
+
+    public ColumnarLineSet() {
+
+        super();
+        mDotStyle = new Point(null, 0);
+        init(DEFAULT_CAPACITY);
+    }
+
+
+    public ColumnarLineSet(@NonNull String[] labels, @NonNull float[] values) {
+
+        super();
+        checkNotNull(labels);
+        checkNotNull(values);
+        if (labels.length != values.length)
+            throw new IllegalArgumentException("Arrays size doesn't match.");
+
+        mDotStyle = new Point(null, 0);
+        init(Math.max(values.length, DEFAULT_CAPACITY));
+        System.arraycopy(labels, 0, mLabels, 0, labels.length);
+        System.arraycopy(values, 0, mValues, 0, values.length);
+        mSize = values.length;
+    }
+
+    private void init(int capacity) {
+
+        mLabels = new String[capacity];
+        mValues = new float[capacity];
+        mX = new float[capacity];
+        mY = new float[capacity];
+        mPoints = new Point[capacity];
+        mSize = 0;
+        mHead = 0;
+    }
+
+
+    /**
+     * Add new entry from a string and a float.
+     *
+     * @param label new entry's label
+     * @param value new entry's value
+     */
+    @Override
+    public void addPoint(String label, float value) {
+
+        if (mHead != 0) unroll();
+        if (mSize == mValues.length) {
+            final int capacity = mSize * 2;
+            mLabels = Arrays.copyOf(mLabels, capacity);
+            mValues = Arrays.copyOf(mValues, capacity);
+            mX = Arrays.copyOf(mX, capacity);
+            mY = Arrays.copyOf(mY, capacity);
+            mPoints = Arrays.copyOf(mPoints, capacity);
+        }
+        mLabels[mSize] = label;
+        mValues[mSize] = value;
+        mSize++;
+        onValueAdded(mSize - 1, value);
+    }
+
+
+    /**
+     * Appends a new entry dropping the oldest one, keeping the set's size. Entries are
+     * kept in a ring so no data is moved. X coordinates belong to positions, not entries,
+     * therefore they stay as they were, while Y coordinates move along with the entries.
+     * The new entry still has to be positioned on screen.
+     *
+     * @param label new entry's label
+     * @param value new entry's value
+     */
+    public void append(String label, float value) {
+
+        if (mSize == 0) throw new IllegalStateException("Can't append to an empty set.");
+
+        mLabels[mHead] = label;
+        mValues[mHead] = value;
+        mHead = (mHead + 1 == mSize) ? 0 : mHead + 1;
+        onFirstValueRemoved();
+        onValueAdded(mSize - 1, value);
+
+        // Points refer to positions which now hold other entries
+        Arrays.fill(mPoints, 0, mSize, null);
+        super.getEntries().clear();
+
+        // Every position now holds a different value, and Y coordinate
+        markDirty(0);
+        markDirty(mSize - 1);
+        onCoordinatesChanged();
+    }
+
+
+    /**
+     * Add new entry with the label and value of the given {@link Point}.
+     * The point's style is not kept, dots are styled by the set.
+     *
+     * @param point {@link Point} to get label and value from
+     */
+    @Override
+    public void addPoint(@NonNull Point point) {
+
+        checkNotNull(point);
+        addPoint(point.getLabel(), point.getValue());
+    }
+
+
+    @Override
+    public int size() {
+
+        return mSize;
+    }
+
+
+    /**
+     * Get {@link ChartEntry} from specific index, creating it if not yet requested.
+     *
+     * @param index Entry's index
+     * @return {@link ChartEntry} at the given index.
+     */
+    @Override
+    public ChartEntry getEntry(int index) {
+
+        return materialize(checkPositionIndex(index, mSize - 1));
+    }
+
+
+    /**
+     * Get set of {@link ChartEntry}s. All entries are created, which defeats the
+     * purpose of this set, prefer accessing values and coordinates by index.
+     *
+     * @return List of entries contained in the set.
+     */
+    @Override
+    public ArrayList<ChartEntry> getEntries() {
+
+        final ArrayList<ChartEntry> entries = super.getEntries();
+        if (entries.size() != mSize) {
+            entries.clear();
+            entries.ensureCapacity(mSize);
+            for (int i = 0; i < mSize; i++)
+                entries.add(materialize(i));
+        }
+        return entries;
+    }
+
+
+    @Override
+    public float getValue(int index) {
+
+        return mValues[slot(checkPositionIndex(index, mSize - 1))];
+    }
+
+
+    @Override
+    void setValue(int index, float value) {
+
+        checkPositionIndex(index, mSize - 1);
+        if (mValues[slot(index)] != value) {
+            markDirty(index);
+            onValueChanged(index, mValues[slot(index)], value);
+        }
+        mValues[slot(index)] = value;
+    }
+
+
+    @Override
+    public String getLabel(int index) {
+
+        return mLabels[slot(checkPositionIndex(index, mSize - 1))];
+    }
+
+
+    @Override
+    public float getX(int index) {
+
+        return mX[checkPositionIndex(index, mSize - 1)];
+    }
+
+
+    @Override
+    public float getY(int index) {
+
+        return mY[slot(checkPositionIndex(index, mSize - 1))];
+    }
+
+
+    @Override
+    public void setCoordinates(int index, float x, float y) {
+
+        checkPositionIndex(index, mSize - 1);
+        mX[index] = x;
+        mY[slot(index)] = y;
+        onCoordinatesChanged();
+    }
+
+
+    @Override
+    public void getValues(int begin, int end, float[] dest) {
+
+        copyFromRing(mValues, begin, end, dest);
+    }
+
+
+    @Override
+    public void setCoordinates(int begin, int end, float[] x, float[] y) {
+
+        System.arraycopy(x, begin, mX, begin, end - begin);
+
+        // Ring may wrap around within the range
+        final int split = Math.min(end, Math.max(begin, mSize - mHead));
+        if (split > begin) System.arraycopy(y, begin, mY, slot(begin), split - begin);
+        if (end > split) System.arraycopy(y, split, mY, slot(split), end - split);
+        onCoordinatesChanged();
+    }
+
+
+    @Override
+    public float[] getScreenPoints(float[] dest) {
+
+        float[] result = dest;
+        if (result == null || result.length < mSize * 2) result = new float[mSize * 2];
+        for (int i = 0; i < mSize; i++) {
+            result[i * 2] = mX[i];
+            result[i * 2 + 1] = mY[slot(i)];
+        }
+
+        return result;
+    }
+
+
+    @Override
+    public void getColors(int begin, int end, int[] dest, int offset) {
+
+        for (int i = begin; i < end; i++)
+            dest[offset + i - begin] = getDotStyle(i).getColor();
+    }
+
+
+    /**
+     * Dots not yet created share the style's color. They all animate to that same color,
+     * so the style takes the color of any of them instead of creating their points.
+     */
+    @Override
+    public void setAnimatedColors(int begin, int end, int[] colors, int offset) {
+
+        for (int i = begin; i < end; i++) {
+            if (mPoints[i] != null) mPoints[i].setAnimatedColor(colors[offset + i - begin]);
+            else mDotStyle.setAnimatedColor(colors[offset + i - begin]);
+        }
+    }
+
+
+    @Override
+    public boolean hasEntriesShadow() {
+
+        if (mDotStyle.hasShadow()) return true;
+        for (int i = 0; i < mSize; i++)
+            if (mPoints[i] != null && mPoints[i].hasShadow()) return true;
+        return false;
+    }
+
+
+    @Override
+    public Point getDotStyle(int index) {
+
+        checkPositionIndex(index, mSize - 1);
+        return (mPoints[index] != null) ? mPoints[index] : mDotStyle;
+    }
+
+
+    @Override
+    public LineSet setDotsColor(@ColorInt int color) {
+
+        mDotStyle.setColor(color);
+        for (int i = 0; i < mSize; i++)
+            if (mPoints[i] != null) mPoints[i].setColor(color);
+        return this;
+    }
+
+
+    @Override
+    public LineSet setDotsRadius(@FloatRange(from = 0.f) float radius) {
+
+        mDotStyle.setRadius(radius);
+        for (int i = 0; i < mSize; i++)
+            if (mPoints[i] != null) mPoints[i].setRadius(radius);
+        return this;
+    }
+
+
+    @Override
+    public LineSet setDotsStrokeThickness(@FloatRange(from = 0.f) float thickness) {
+
+        mDotStyle.setStrokeThickness(thickness);
+        for (int i = 0; i < mSize; i++)
+            if (mPoints[i] != null) mPoints[i].setStrokeThickness(thickness);
+        return this;
+    }
+
+
+    @Override
+    public LineSet setDotsStrokeColor(@ColorInt int color) {
+
+        mDotStyle.setStrokeColor(color);
+        for (int i = 0; i < mSize; i++)
+            if (mPoints[i] != null) mPoints[i].setStrokeColor(color);
+        return this;
+    }
+
+
+    @Override
+    public LineSet setDotsDrawable(@NonNull Drawable drawable) {
+
+        mDotStyle.setDrawable(drawable);
+        for (int i = 0; i < mSize; i++)
+            if (mPoints[i] != null) mPoints[i].setDrawable(drawable);
+        return this;
+    }
+
+
+    @Override
+    public void setShadow(float radius, float dx, float dy, int color) {
+
+        mDotStyle.setShadow(radius, dx, dy, color);
+        mDotShadowColor = color;
+        for (int i = 0; i < mSize; i++)
+            if (mPoints[i] != null) mPoints[i].setShadow(radius, dx, dy, color);
+        setLineShadow(radius, dx, dy, color);
+    }
+
+
+    /**
+     * Creates the {@link Point} of the given index, if not yet created, styled as the set's dots.
+     */
+    private Point materialize(int index) {
+
+        if (mPoints[index] == null) {
+            final Point point = new ColumnarPoint(index);
+            if (mDotStyle.isVisible()) {
+                point.setColor(mDotStyle.getColor());
+                point.setRadius(mDotStyle.getRadius());
+            }
+            if (mDotStyle.hasStroke()) {
+                point.setStrokeThickness(mDotStyle.getStrokeThickness());
+                point.setStrokeColor(mDotStyle.getStrokeColor());
+            }
+            if (mDotStyle.getDrawable() != null) point.setDrawable(mDotStyle.getDrawable());
+            if (mDotStyle.hasShadow())
+                point.setShadow(mDotStyle.getShadowRadius(), mDotStyle.getShadowDx(),
+                        mDotStyle.getShadowDy(), mDotShadowColor);
+            mPoints[index] = point;
+        }
+        return mPoints[index];
+    }
+
+
+    /**
+     * Position in the ring arrays of the entry at given index.
+     */
+    private int slot(int index) {
+
+        final int slot = mHead + index;
+        return (slot >= mSize) ? slot - mSize : slot;
+    }
+
+
+    /**
+     * Copies a range of entries from a ring array, each to its entry's index.
+     */
+    private void copyFromRing(float[] src, int begin, int end, float[] dest) {
+
+        final int split = Math.min(end, Math.max(begin, mSize - mHead));
+        if (split > begin) System.arraycopy(src, slot(begin), dest, begin, split - begin);
+        if (end > split) System.arraycopy(src, slot(split), dest, split, end - split);
+    }
+
+
+    /**
+     * Moves ring arrays data so the oldest entry is at the beginning.
+     */
+    private void unroll() {
+
+        mLabels = rotate(mLabels, new String[mLabels.length]);
+        mValues = rotate(mValues, new float[mValues.length]);
+        mY = rotate(mY, new float[mY.length]);
+        mHead = 0;
+    }
+
+    private <T> T rotate(T src, T dest) {
+
+        System.arraycopy(src, mHead, dest, 0, mSize - mHead);
+        System.arraycopy(src, 0, dest, mSize - mHead, mHead);
+        return dest;
+    }
+
+
+    @Override
+    public String toString() {
+
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < mSize; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(mValues[slot(i)]);
+        }
+        return builder.append(']').toString();
+    }
+
+
+    /**
+     * {@link Point} reading and writing its data from the set's arrays.
+     */
+    private class ColumnarPoint extends Point {
+
+        private final int mIndex;
+
+
+        ColumnarPoint(int index) {
+
+            super(null, 0);
+            mIndex = index;
+        }
+
+
+        @Override
+        public String getLabel() {
+
+            return mLabels[slot(mIndex)];
+        }
+
+        @Override
+        public float getValue() {
+
+            return mValues[slot(mIndex)];
+        }
+
+        @Override
+        public void setValue(float value) {
+
+            if (mValues[slot(mIndex)] != value) {
+                markDirty(mIndex);
+                onValueChanged(mIndex, mValues[slot(mIndex)], value);
+            }
+            mValues[slot(mIndex)] = value;
+        }
+
+        @Override
+        public float getX() {
+
+            return mX[mIndex];
+        }
+
+        @Override
+        public float getY() {
+
+            return mY[slot(mIndex)];
+        }
+
+        @Override
+        public void setCoordinates(float x, float y) {
+
+            mX[mIndex] = x;
+            mY[slot(mIndex)] = y;
+            onCoordinatesChanged();
+        }
+
+    }
+
+}
@@ -44,6 +44,11 @@ public class LineSet extends ChartSet {
 
     private boolean mIsSmooth;
 
+    /**
+     * Level of detail reduction applied when drawing
+     */
+    private Downsampling mDownsampling;
+
     /**
      * Background fill variables
      */
@@ -116,6 +121,8 @@ public class LineSet extends ChartSet {
 
         mIsSmooth = false;
 
+        mDownsampling = Downsampling.NONE;
+
         mHasFill = false;
         mFillColor = DEFAULT_COLOR;
 
@@ -201,6 +208,29 @@ public class LineSet extends ChartSet {
         return this;
     }
 
+    /**
+     * Downsampling applied to the line when drawing.
+     *
+     * @return {@link Downsampling} defined, {@link Downsampling#NONE} by default.
+     */
+    public Downsampling getDownsampling() {
+
+        return mDownsampling;
+    }
+
+    /**
+     * Draws only a subset of entries appropriate to the chart's width, useful for sets with
+     * many more entries than pixels. Clickable regions and tooltips still refer to all entries.
+     *
+     * @param downsampling {@link Downsampling} to apply
+     * @return {@link com.aiqfome.aiqchart.model.LineSet} self-reference.
+     */
+    public LineSet setDownsampling(@NonNull Downsampling downsampling) {
+
+        mDownsampling = checkNotNull(downsampling);
+        return this;
+    }
+
     /**
      * If line has fill color defined.
      *
@@ -542,10 +572,29 @@ public class LineSet extends ChartSet {
         return this;
     }
 
+    /**
+     * Retrieve the {@link Point} holding the style of the dot at given index.
+     * Coordinates should be read from the set, as the returned point may be shared.
+     *
+     * @param index Dot's index
+     * @return {@link Point} with the dot's style.
+     */
+    public Point getDotStyle(int index) {
+
+        return (Point) getEntry(index);
+    }
+
     @Override
     public void setShadow(float radius, float dx, float dy, int color) {
 
         super.setShadow(radius, dx, dy, color);
+        setLineShadow(radius, dx, dy, color);
+    }
+
+    /**
+     * Define the shadow of the line alone, without its dots.
+     */
+    void setLineShadow(float radius, float dx, float dy, int color) {
 
         mShadowRadius = radius;
         mShadowDx = dx;
@@ -557,4 +606,20 @@ public class LineSet extends ChartSet {
         mShadowColor[3] = Color.green(color);
     }
 
+
+    public enum Downsampling {
+        /**
+         * All entries are drawn.
+         */
+        NONE,
+        /**
+         * Largest-Triangle-Three-Buckets, keeps one entry per pixel preserving the line's shape.
+         */
+        LTTB,
+        /**
+         * Keeps first, minimum, maximum and last entries of each pixel column.
+         */
+        MIN_MAX
+    }
+
 }
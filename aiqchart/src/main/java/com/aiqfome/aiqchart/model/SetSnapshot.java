@@ -0,0 +1,131 @@
+package com.aiqfome.aiqchart.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static com.aiqfome.aiqchart.util.Preconditions.checkPositionIndex;
+
+
+/**
+ * Detached copy of a {@link ChartSet}'s values, labels and visibility, holding display
+ * coordinates of its own. It has no {@link ChartEntry} objects, values and coordinates
+ * are only accessed by index.
+ */
+final class SetSnapshot extends ChartSet {
+
+    private final String[] mLabels;
+
+    private final float[] mValues;
+
+    /**
+     * Display coordinates
+     */
+    private final float[] mX;
+
+    private final float[] mY;
+
+
+    SetSnapshot(ChartSet set) {
+
+        super();
+        final int size = set.size();
+        mLabels = new String[size];
+        mValues = new float[size];
+        mX = new float[size];
+        mY = new float[size];
+        for (int i = 0; i < size; i++)
+            mLabels[i] = set.getLabel(i);
+        set.getValues(0, size, mValues);
+        setVisible(set.isVisible());
+    }
+
+
+    @Override
+    public int size() {
+
+        return mValues.length;
+    }
+
+
+    @Override
+    public ChartEntry getEntry(int index) {
+
+        throw new UnsupportedOperationException("A set snapshot has no entries.");
+    }
+
+
+    @Override
+    public ArrayList<ChartEntry> getEntries() {
+
+        throw new UnsupportedOperationException("A set snapshot has no entries.");
+    }
+
+
+    @Override
+    public float getValue(int index) {
+
+        return mValues[checkPositionIndex(index, mValues.length - 1)];
+    }
+
+
+    @Override
+    public String getLabel(int index) {
+
+        return mLabels[checkPositionIndex(index, mLabels.length - 1)];
+    }
+
+
+    @Override
+    public float getX(int index) {
+
+        return mX[checkPositionIndex(index, mX.length - 1)];
+    }
+
+
+    @Override
+    public float getY(int index) {
+
+        return mY[checkPositionIndex(index, mY.length - 1)];
+    }
+
+
+    @Override
+    public void setCoordinates(int index, float x, float y) {
+
+        checkPositionIndex(index, mX.length - 1);
+        mX[index] = x;
+        mY[index] = y;
+        onCoordinatesChanged();
+    }
+
+
+    @Override
+    public void getValues(int begin, int end, float[] dest) {
+
+        System.arraycopy(mValues, begin, dest, begin, end - begin);
+    }
+
+
+    @Override
+    public void setCoordinates(int begin, int end, float[] x, float[] y) {
+
+        System.arraycopy(x, begin, mX, begin, end - begin);
+        System.arraycopy(y, begin, mY, begin, end - begin);
+        onCoordinatesChanged();
+    }
+
+
+    @Override
+    public boolean hasEntriesShadow() {
+
+        return false;
+    }
+
+
+    @Override
+    public String toString() {
+
+        return Arrays.toString(mValues);
+    }
+
+}
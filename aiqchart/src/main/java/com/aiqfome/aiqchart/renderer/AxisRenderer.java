@@ -1,13 +1,16 @@
 package com.aiqfome.aiqchart.renderer;
 
 import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
 
-import com.aiqfome.aiqchart.model.ChartEntry;
 import com.aiqfome.aiqchart.model.ChartSet;
 import com.aiqfome.aiqchart.view.ChartView.Style;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 
 /**
@@ -18,6 +21,11 @@ public abstract class AxisRenderer {
 
     private static final float DEFAULT_STEPS_NUMBER = 3;
 
+    /**
+     * Relative tolerance, in steps, absorbing floating point errors when fitting steps
+     */
+    private static final double STEPS_TOLERANCE = 1e-6;
+
     /**
      * Label's values formatted
      */
@@ -26,12 +34,12 @@ public abstract class AxisRenderer {
     /**
      * Label's values
      */
-    ArrayList<Float> labelsValues;
+    float[] labelsValues;
 
     /**
      * Labels position
      */
-    ArrayList<Float> labelsPos;
+    float[] labelsPos;
 
     /**
      * Refers to the coordinate X in case of Axis Y and coordinate Y in case of Axis X
@@ -48,6 +56,13 @@ public abstract class AxisRenderer {
      */
     float screenStep;
 
+    /**
+     * Affine transform converting values into screen coordinates, position = value * scale + offset
+     */
+    float valuesScale;
+
+    float valuesOffset;
+
     /**
      * Starting X point of the axis
      */
@@ -63,6 +78,16 @@ public abstract class AxisRenderer {
      */
     boolean handleValues;
 
+    /**
+     * Whether border values were found from data, instead of being defined
+     */
+    private boolean mHasDataBorders;
+
+    /**
+     * Whether step has been found from data, rather than defined
+     */
+    private boolean mHasDataStep;
+
     /**
      * Inner chart borders (inner chart means the chart's area where datasets are drawn)
      */
@@ -86,6 +111,34 @@ public abstract class AxisRenderer {
      */
     private float step;
 
+    /**
+     * Last values formatted into labels, and a copy of the format used,
+     * so changes made to the caller's format are noticed
+     */
+    private float[] mFormattedValues;
+
+    private ArrayList<String> mFormattedLabels;
+
+    private DecimalFormat mFormat;
+
+    /**
+     * Width and height of each label, measured on demand, negative if not yet measured
+     */
+    private float[] mLabelsWidth;
+
+    private int[] mLabelsHeight;
+
+    /**
+     * Labels and font the measures refer to
+     */
+    private ArrayList<String> mMeasuredLabels;
+
+    private Typeface mMeasuredTypeface;
+
+    private float mMeasuredTextSize;
+
+    private final Rect mLabelBounds = new Rect();
+
 
     AxisRenderer() {
 
@@ -93,6 +146,29 @@ public abstract class AxisRenderer {
     }
 
 
+    /**
+     * Creates a renderer with the configuration of another one, such as its borders,
+     * step and whether it handles values, to be laid out apart from it.
+     *
+     * @param other Renderer whose configuration is copied
+     */
+    AxisRenderer(AxisRenderer other) {
+
+        mandatoryBorderSpacing = other.mandatoryBorderSpacing;
+        step = other.step;
+        minLabelValue = other.minLabelValue;
+        maxLabelValue = other.maxLabelValue;
+        handleValues = other.handleValues;
+        mHasDataBorders = other.mHasDataBorders;
+        mHasDataStep = other.mHasDataStep;
+
+        // Formatted labels are replaced, never modified, so they can be shared
+        mFormattedValues = other.mFormattedValues;
+        mFormattedLabels = other.mFormattedLabels;
+        mFormat = other.mFormat;
+    }
+
+
     /**
      * Define labels/values of axis.
      *
@@ -105,13 +181,28 @@ public abstract class AxisRenderer {
             if (minLabelValue == 0 && maxLabelValue == 0) {
                 float[] borders;
                 if (hasStep()) borders = findBorders(data, step); // no borders, step
-                else borders = findBorders(data); // no borders, no step
+                else { // no borders, no step
+                    borders = findBorders(data);
+                    step = calculateNiceStep(borders[1] - borders[0], DEFAULT_STEPS_NUMBER);
+                    borders[0] = (float) (Math.floor(borders[0] / step + STEPS_TOLERANCE) * step);
+                    borders[1] = (float) (Math.ceil(borders[1] / step - STEPS_TOLERANCE) * step);
+                    mHasDataStep = true;
+                }
                 minLabelValue = borders[0];
                 maxLabelValue = borders[1];
+                mHasDataBorders = true;
             }
             if (!hasStep()) setBorderValues(minLabelValue, maxLabelValue);
             labelsValues = calculateValues(minLabelValue, maxLabelValue, step);
-            labels = convertToLabelsFormat(labelsValues, style.getLabelsFormat());
+
+            // Format values only if they, or the format settings, changed
+            final DecimalFormat format = style.getLabelsFormat();
+            if (!Arrays.equals(labelsValues, mFormattedValues) || !format.equals(mFormat)) {
+                mFormattedLabels = convertToLabelsFormat(labelsValues, format);
+                mFormattedValues = labelsValues;
+                mFormat = (DecimalFormat) format.clone();
+            }
+            labels = mFormattedLabels;
         } else {
             labels = extractLabels(data);
         }
@@ -185,6 +276,27 @@ public abstract class AxisRenderer {
     public abstract float parsePos(int index, double value);
 
 
+    /**
+     * Based in a range of (real) values returns the associated screen points, in bulk.
+     *
+     * @param values Values to be parsed, each at the index of its label
+     * @param begin  Index of the first value
+     * @param end    Index after the last value
+     * @param dest   Buffer where display coordinates are written, at the same indexes
+     */
+    public void parsePos(float[] values, int begin, int end, float[] dest) {
+
+        if (handleValues) {
+            final float scale = valuesScale;
+            final float offset = valuesOffset;
+            for (int i = begin; i < end; i++)
+                dest[i] = values[i] * scale + offset;
+        } else {
+            System.arraycopy(labelsPos, begin, dest, begin, end - begin);
+        }
+    }
+
+
     /**
      * Measure the necessary padding from the chart left border defining the
      * coordinate of the inner chart left border. Inner Chart refers only to the
@@ -241,6 +353,35 @@ public abstract class AxisRenderer {
         minLabelValue = 0;
         maxLabelValue = 0;
         handleValues = false;
+        mHasDataBorders = false;
+        mHasDataStep = false;
+    }
+
+
+    /**
+     * Forget border values found from data, so they are found again in the next init.
+     * Border values previously defined are kept.
+     */
+    public void clearDataBorders() {
+
+        if (!mHasDataBorders) return;
+        minLabelValue = 0;
+        maxLabelValue = 0;
+        mHasDataBorders = false;
+        if (mHasDataStep) step = -1;
+        mHasDataStep = false;
+    }
+
+
+    /**
+     * Extract again labels from data, in case renderer doesn't handle values.
+     * Labels are expected to take the same space as the previous ones.
+     *
+     * @param data Chart data
+     */
+    public void updateLabels(ArrayList<ChartSet> data) {
+
+        if (!handleValues) labels = extractLabels(data);
     }
 
 
@@ -273,15 +414,84 @@ public abstract class AxisRenderer {
                 - style.getAxisBorderSpacing() * 2
                 - mandatoryBorderSpacing * 2) / (nLabels - 1);
 
-        labelsPos = new ArrayList<>(nLabels);
+        if (labelsPos == null || labelsPos.length != nLabels) labelsPos = new float[nLabels];
         float currPos = innerStart + style.getAxisBorderSpacing() + mandatoryBorderSpacing;
         for (int i = 0; i < nLabels; i++) {
-            labelsPos.add(currPos);
+            labelsPos[i] = currPos;
             currPos += screenStep;
         }
     }
 
 
+    /**
+     * Precomputes the affine transform used to convert values into screen coordinates.
+     *
+     * @param origin    Screen coordinate corresponding to the minimum label value
+     * @param direction 1 if coordinates grow along with values, -1 otherwise
+     */
+    void defineValuesTransform(float origin, int direction) {
+
+        if (!handleValues) return;
+        valuesScale = direction * screenStep / (labelsValues[1] - minLabelValue);
+        valuesOffset = origin - minLabelValue * valuesScale;
+    }
+
+
+    /**
+     * Width of a label, measured only once for the current labels and font.
+     *
+     * @param index Label's index
+     * @return Width of the label.
+     */
+    float getLabelWidth(int index) {
+
+        checkLabelsMeasures();
+        if (mLabelsWidth[index] < 0)
+            mLabelsWidth[index] = style.getLabelsPaint().measureText(labels.get(index));
+        return mLabelsWidth[index];
+    }
+
+
+    /**
+     * Height of a label, measured only once for the current labels and font.
+     *
+     * @param index Label's index
+     * @return Height of the label.
+     */
+    int getLabelHeight(int index) {
+
+        checkLabelsMeasures();
+        if (mLabelsHeight[index] < 0) {
+            final String label = labels.get(index);
+            style.getLabelsPaint().getTextBounds(label, 0, label.length(), mLabelBounds);
+            mLabelsHeight[index] = mLabelBounds.height();
+        }
+        return mLabelsHeight[index];
+    }
+
+
+    /**
+     * Forgets measures taken if labels or font changed since.
+     */
+    private void checkLabelsMeasures() {
+
+        final Paint paint = style.getLabelsPaint();
+        if (labels == mMeasuredLabels && paint.getTypeface() == mMeasuredTypeface
+                && paint.getTextSize() == mMeasuredTextSize) return;
+
+        final int size = labels.size();
+        if (mLabelsWidth == null || mLabelsWidth.length < size) {
+            mLabelsWidth = new float[size];
+            mLabelsHeight = new int[size];
+        }
+        Arrays.fill(mLabelsWidth, 0, size, -1);
+        Arrays.fill(mLabelsHeight, 0, size, -1);
+        mMeasuredLabels = labels;
+        mMeasuredTypeface = paint.getTypeface();
+        mMeasuredTextSize = paint.getTextSize();
+    }
+
+
     /**
      * Generate and format strings out of axis values.
      *
@@ -290,12 +500,11 @@ public abstract class AxisRenderer {
      * @return An {@link ArrayList} containing the set of strings generated
      * from axis values and to be displayed along the axis.
      */
-    ArrayList<String> convertToLabelsFormat(ArrayList<Float> values, DecimalFormat format) {
+    ArrayList<String> convertToLabelsFormat(float[] values, DecimalFormat format) {
 
-        int size = values.size();
-        ArrayList<String> result = new ArrayList<>(size);
-        for (int i = 0; i < size; i++)
-            result.add(format.format(values.get(i)));
+        ArrayList<String> result = new ArrayList<>(values.length);
+        for (float value : values)
+            result.add(format.format(value));
         return result;
     }
 
@@ -329,10 +538,8 @@ public abstract class AxisRenderer {
         float min = Integer.MAX_VALUE;
 
         for (ChartSet set : sets) {  // Find minimum and maximum value out of all chart entries
-            for (ChartEntry e : set.getEntries()) {
-                if (e.getValue() >= max) max = e.getValue();
-                if (e.getValue() <= min) min = e.getValue();
-            }
+            if (set.getMaxValue() >= max) max = set.getMaxValue();
+            if (set.getMinValue() <= min) min = set.getMinValue();
         }
 
         if (max < 0) max = 0;
@@ -355,12 +562,38 @@ public abstract class AxisRenderer {
     float[] findBorders(ArrayList<ChartSet> sets, float step) {
 
         float[] borders = findBorders(sets);
-        while ((borders[1] - borders[0]) % step != 0) borders[1] += 1; // Assure border fit step
+
+        // Assure border fit step
+        final double nSteps = Math.ceil((borders[1] - borders[0]) / step - STEPS_TOLERANCE);
+        borders[1] = (float) (borders[0] + nSteps * step);
 
         return borders;
     }
 
 
+    /**
+     * Find a human friendly step, being 1, 2, 2.5 or 5 times a power of 10,
+     * splitting the given range in at least the given number of steps.
+     *
+     * @param range  Range of values to be split
+     * @param nSteps Minimum number of steps
+     * @return Step to be used between axis values.
+     */
+    static float calculateNiceStep(float range, float nSteps) {
+
+        final double rough = range / nSteps;
+        final double magnitude = Math.pow(10, Math.floor(Math.log10(rough)));
+        final double fraction = rough / magnitude;
+
+        final double nice;
+        if (fraction >= 5) nice = 5;
+        else if (fraction >= 2.5) nice = 2.5;
+        else if (fraction >= 2) nice = 2;
+        else nice = 1;
+        return (float) (nice * magnitude);
+    }
+
+
     /**
      * Calculate labels based on the minimum and maximum value displayed
      * as well as the step used to defined both of them.
@@ -368,20 +601,17 @@ public abstract class AxisRenderer {
      * @param min  Minimum axis value
      * @param max  Maximum axis value
      * @param step Step to be used between axis values
-     * @return {@link ArrayList} containing all values to be displayed along the axis.
+     * @return Array containing all values to be displayed along the axis.
      */
-    ArrayList<Float> calculateValues(float min, float max, float step) {
-
-        ArrayList<Float> result = new ArrayList<>();
-        float pos = min;
-        while (pos <= max) {
-            result.add(pos);
-            pos += step;
-        }
+    float[] calculateValues(float min, float max, float step) {
 
         // Set max Y axis label in case isn't already there
-        if (result.get(result.size() - 1) < max) result.add(pos);
+        final int nSteps = (int) Math.ceil((max - min) / (double) step - STEPS_TOLERANCE);
 
+        // Each value computed from min, so errors don't accumulate
+        final float[] result = new float[nSteps + 1];
+        for (int i = 0; i <= nSteps; i++)
+            result[i] = (float) (min + (double) i * step);
         return result;
     }
 
@@ -461,6 +691,7 @@ public abstract class AxisRenderer {
     public void setStep(int step) {
 
         this.step = step;
+        mHasDataStep = false;
     }
 
     /**
@@ -552,6 +783,7 @@ public abstract class AxisRenderer {
                 "Minimum border value must be greater than maximum values");
 
         this.step = step;
+        mHasDataStep = false;
         maxLabelValue = max;
         minLabelValue = min;
     }
@@ -10,10 +10,28 @@ import android.graphics.Paint.Align;
  */
 public class XRenderer extends AxisRenderer {
 
+    /**
+     * Distance, in labels, between two consecutive labels drawn
+     */
+    private int mLabelsStride;
+
 
     public XRenderer() {
 
         super();
+        mLabelsStride = 1;
+    }
+
+
+    /**
+     * Creates a renderer with the configuration of another one, to be laid out apart from it.
+     *
+     * @param other Renderer whose configuration is copied
+     */
+    public XRenderer(XRenderer other) {
+
+        super(other);
+        mLabelsStride = 1;
     }
 
 
@@ -27,6 +45,27 @@ public class XRenderer extends AxisRenderer {
 
         defineMandatoryBorderSpacing(mInnerChartLeft, mInnerChartRight);
         defineLabelsPosition(mInnerChartLeft, mInnerChartRight);
+        defineValuesTransform(mInnerChartLeft, 1);
+        defineLabelsStride();
+    }
+
+
+    /**
+     * Find the minimal stride between drawn labels so they don't overlap each other.
+     * Labels are measured only once, dense axis end up drawing only some of them.
+     */
+    private void defineLabelsStride() {
+
+        mLabelsStride = 1;
+        final int nLabels = labels.size();
+        if (style.getXLabelsPositioning() == LabelPosition.NONE || nLabels < 2
+                || screenStep <= 0) return;
+
+        float maxWidth = 0;
+        for (int i = 0; i < nLabels; i++)
+            if (getLabelWidth(i) > maxWidth) maxWidth = getLabelWidth(i);
+
+        if (maxWidth > screenStep) mLabelsStride = (int) Math.ceil(maxWidth / screenStep);
     }
 
     @Override
@@ -68,8 +107,8 @@ public class XRenderer extends AxisRenderer {
             style.getLabelsPaint().setTextAlign(Align.CENTER);
 
             int nLabels = labels.size();
-            for (int i = 0; i < nLabels; i++) {
-                canvas.drawText(labels.get(i), labelsPos.get(i), labelsStaticPos,
+            for (int i = 0; i < nLabels; i += mLabelsStride) {
+                canvas.drawText(labels.get(i), labelsPos[i], labelsStaticPos,
                         style.getLabelsPaint());
 
             }
@@ -79,17 +118,15 @@ public class XRenderer extends AxisRenderer {
     @Override
     public float parsePos(int index, double value) {
 
-        if (handleValues)
-            return (float) (mInnerChartLeft
-                    + (((value - minLabelValue) * screenStep) / (labelsValues.get(1) - minLabelValue)));
-        else return labelsPos.get(index);
+        if (handleValues) return (float) value * valuesScale + valuesOffset;
+        else return labelsPos[index];
     }
 
     @Override
     protected float measureInnerChartLeft(int left) {
 
         return (style.getXLabelsPositioning() != LabelPosition.NONE)
-                ? style.getLabelsPaint().measureText(labels.get(0)) / 2
+                ? getLabelWidth(0) / 2
                 : left;
     }
 
@@ -106,7 +143,7 @@ public class XRenderer extends AxisRenderer {
         float lastLabelWidth = 0;
         // to fix possible crash on trying to access label by index -1.
         if (labels.size() > 0)
-            lastLabelWidth = style.getLabelsPaint().measureText(labels.get(labels.size() - 1));
+            lastLabelWidth = getLabelWidth(labels.size() - 1);
 
         float rightBorder = 0;
         if (style.getXLabelsPositioning() != LabelPosition.NONE
@@ -3,8 +3,6 @@ package com.aiqfome.aiqchart.renderer;
 import android.graphics.Canvas;
 import android.graphics.Paint.Align;
 
-import java.util.Collections;
-
 
 /**
  * Class responsible to control vertical measures, positions, yadda yadda.
@@ -19,6 +17,17 @@ public class YRenderer extends AxisRenderer {
     }
 
 
+    /**
+     * Creates a renderer with the configuration of another one, to be laid out apart from it.
+     *
+     * @param other Renderer whose configuration is copied
+     */
+    public YRenderer(YRenderer other) {
+
+        super(other);
+    }
+
+
     /*
      * IMPORTANT: Method's calls order is crucial. Change it (or not) carefully.
      */
@@ -29,6 +38,7 @@ public class YRenderer extends AxisRenderer {
 
         defineMandatoryBorderSpacing(mInnerChartTop, mInnerChartBottom);
         defineLabelsPosition(mInnerChartTop, mInnerChartBottom);
+        defineValuesTransform(mInnerChartBottom, -1);
     }
 
     @Override
@@ -75,7 +85,7 @@ public class YRenderer extends AxisRenderer {
             int nLabels = labels.size();
             for (int i = 0; i < nLabels; i++) {
                 canvas.drawText(labels.get(i), labelsStaticPos,
-                        labelsPos.get(i) + style.getLabelHeight(labels.get(i)) / 2,
+                        labelsPos[i] + getLabelHeight(i) / 2,
                         style.getLabelsPaint());
             }
         }
@@ -85,16 +95,21 @@ public class YRenderer extends AxisRenderer {
     void defineLabelsPosition(float innerStart, float innerEnd) {
 
         super.defineLabelsPosition(innerStart, innerEnd);
-        Collections.reverse(labelsPos);
+
+        // Reverse positions in place, first label sits at the bottom
+        float aux;
+        for (int i = 0, j = labelsPos.length - 1; i < j; i++, j--) {
+            aux = labelsPos[i];
+            labelsPos[i] = labelsPos[j];
+            labelsPos[j] = aux;
+        }
     }
 
     @Override
     public float parsePos(int index, double value) {
 
-        if (handleValues)
-            return (float) (mInnerChartBottom
-                    - (((value - minLabelValue) * screenStep) / (labelsValues.get(1) - minLabelValue)));
-        else return labelsPos.get(index);
+        if (handleValues) return (float) value * valuesScale + valuesOffset;
+        else return labelsPos[index];
     }
 
     @Override
@@ -107,8 +122,8 @@ public class YRenderer extends AxisRenderer {
         if (style.getYLabelsPositioning() == LabelPosition.OUTSIDE) {
             float aux;
             float maxLabelLength = 0;
-            for (String label : labels) {
-                aux = style.getLabelsPaint().measureText(label);
+            for (int i = 0; i < labels.size(); i++) {
+                aux = getLabelWidth(i);
                 if (aux > maxLabelLength)
                     maxLabelLength = aux;
             }
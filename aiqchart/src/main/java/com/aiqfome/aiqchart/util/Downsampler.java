@@ -0,0 +1,157 @@
+package com.aiqfome.aiqchart.util;
+
+import androidx.annotation.NonNull;
+
+import com.aiqfome.aiqchart.model.ChartSet;
+
+
+/**
+ * Level of detail algorithms selecting which entries of a set are worth drawing.
+ * Both work over the entries screen coordinates, which must be ascending in X.
+ * Selected indexes are written to a given buffer, in ascending order.
+ */
+public final class Downsampler {
+
+    private Downsampler() {
+    }
+
+
+    /**
+     * Largest-Triangle-Three-Buckets. Splits the entries in buckets and keeps, from each
+     * bucket, the entry forming the largest triangle with the previous kept entry and the
+     * average of the next bucket. First and last entries are always kept.
+     *
+     * @param set       {@link ChartSet} with entries already positioned on screen
+     * @param begin     Index of the first entry to consider
+     * @param end       Index after the last entry to consider
+     * @param threshold Maximum number of entries to keep
+     * @param indexes   Buffer where kept indexes are written, at least threshold long
+     * @return Number of indexes written to the buffer.
+     */
+    public static int lttb(@NonNull ChartSet set, int begin, int end, int threshold,
+                           @NonNull int[] indexes) {
+
+        final int size = end - begin;
+        if (threshold >= size || threshold < 3) return sequence(begin, end, indexes);
+
+        final float bucketSize = (float) (size - 2) / (threshold - 2);
+        int count = 0;
+        int selected = begin;
+        indexes[count++] = selected;
+
+        int bucketStart;
+        int bucketEnd;
+        int nextStart;
+        int nextEnd;
+        float avgX;
+        float avgY;
+        float area;
+        float maxArea;
+        float selectedX;
+        float selectedY;
+        int candidate;
+        for (int b = 0; b < threshold - 2; b++) {
+
+            bucketStart = begin + 1 + (int) (b * bucketSize);
+            bucketEnd = begin + 1 + (int) ((b + 1) * bucketSize);
+
+            // Average point of the next bucket
+            nextStart = bucketEnd;
+            nextEnd = Math.min(end, begin + 1 + (int) ((b + 2) * bucketSize));
+            avgX = 0;
+            avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += set.getX(i);
+                avgY += set.getY(i);
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            selectedX = set.getX(selected);
+            selectedY = set.getY(selected);
+            maxArea = -1;
+            candidate = bucketStart;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                area = Math.abs((selectedX - avgX) * (set.getY(i) - selectedY)
+                        - (selectedX - set.getX(i)) * (avgY - selectedY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    candidate = i;
+                }
+            }
+            selected = candidate;
+            indexes[count++] = selected;
+        }
+
+        indexes[count++] = end - 1;
+        return count;
+    }
+
+
+    /**
+     * Groups entries by pixel column and keeps the first, minimum, maximum and last
+     * entries of each column, preserving every peak of the line.
+     *
+     * @param set     {@link ChartSet} with entries already positioned on screen
+     * @param begin   Index of the first entry to consider
+     * @param end     Index after the last entry to consider
+     * @param indexes Buffer where kept indexes are written, at least (end - begin) long
+     * @return Number of indexes written to the buffer.
+     */
+    public static int minMax(@NonNull ChartSet set, int begin, int end, @NonNull int[] indexes) {
+
+        int count = 0;
+        int first = begin;
+        int column = (int) set.getX(begin);
+        int min = begin;
+        int max = begin;
+        float y;
+        for (int i = begin + 1; i <= end; i++) {
+
+            if (i < end && (int) set.getX(i) == column) {
+                y = set.getY(i);
+                if (y < set.getY(min)) min = i;
+                if (y > set.getY(max)) max = i;
+                continue;
+            }
+
+            // Column finished, keep its extremes in ascending index order
+            count = add(indexes, count, first);
+            count = add(indexes, count, Math.min(min, max));
+            count = add(indexes, count, Math.max(min, max));
+            count = add(indexes, count, i - 1);
+
+            if (i < end) {
+                first = min = max = i;
+                column = (int) set.getX(i);
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Writes all indexes between begin and end.
+     *
+     * @return Number of indexes written to the buffer.
+     */
+    public static int sequence(int begin, int end, @NonNull int[] indexes) {
+
+        int count = 0;
+        for (int i = begin; i < end; i++)
+            indexes[count++] = i;
+        return count;
+    }
+
+
+    /**
+     * Appends an index unless it is the last one written.
+     */
+    private static int add(int[] indexes, int count, int index) {
+
+        if (count > 0 && indexes[count - 1] == index) return count;
+        indexes[count] = index;
+        return count + 1;
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.aiqfome.aiqchart.util;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+
+
+/**
+ * Keeps rasterized versions of {@link Drawable} objects so they can be drawn
+ * every frame without creating a new {@link Bitmap} each time.
+ * Memory used by the cache is bounded by the given number of bytes,
+ * bitmaps bigger than that aren't cached.
+ */
+public final class DrawableBitmapCache {
+
+    /**
+     * Bytes per pixel of the bitmaps created, which are ARGB_8888
+     */
+    private static final int BYTES_PER_PIXEL = 4;
+
+    /**
+     * Bitmaps created by this cache
+     */
+    private final LruCache<Drawable, Bitmap> mCache;
+
+
+    /**
+     * @param maxBytes Maximum number of bytes used by the cached bitmaps
+     */
+    public DrawableBitmapCache(int maxBytes) {
+
+        if (maxBytes <= 0) throw new IllegalArgumentException("Cache size must be positive.");
+
+        mCache = new LruCache<Drawable, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Drawable key, Bitmap value) {
+
+                return value.getByteCount();
+            }
+        };
+    }
+
+
+    /**
+     * Retrieves the {@link Bitmap} of a {@link Drawable}, rasterizing it only if not cached
+     * or if its intrinsic size changed since.
+     *
+     * A bitmap that wouldn't fit in the cache is rasterized every time, instead of
+     * evicting every other bitmap only to be evicted right away.
+     *
+     * @param drawable {@link Drawable} to be converted
+     * @return {@link Bitmap} object, or null if drawable has no intrinsic size
+     */
+    public Bitmap get(@NonNull Drawable drawable) {
+
+        if (drawable instanceof BitmapDrawable) return ((BitmapDrawable) drawable).getBitmap();
+
+        final int width = drawable.getIntrinsicWidth();
+        final int height = drawable.getIntrinsicHeight();
+        if (width <= 0 || height <= 0) return null;
+        if ((long) width * height * BYTES_PER_PIXEL > mCache.maxSize())
+            return Tools.drawableToBitmap(drawable);
+
+        Bitmap bitmap = mCache.get(drawable);
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            bitmap = Tools.drawableToBitmap(drawable);
+            mCache.put(drawable, bitmap);
+        }
+        return bitmap;
+    }
+
+
+    /**
+     * Releases all cached bitmaps.
+     * Evicted bitmaps are left to the garbage collector since a frame may still reference them,
+     * only here they are explicitly recycled, which must happen once nothing draws them anymore.
+     */
+    public void release() {
+
+        final ArrayList<Bitmap> bitmaps = new ArrayList<>(mCache.snapshot().values());
+        mCache.evictAll();
+        for (Bitmap bitmap : bitmaps)
+            bitmap.recycle();
+    }
+
+}
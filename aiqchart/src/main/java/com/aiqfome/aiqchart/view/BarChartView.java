@@ -2,9 +2,6 @@ package com.aiqfome.aiqchart.view;
 
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.LinearGradient;
-import android.graphics.Region;
-import android.graphics.Shader;
 import android.util.AttributeSet;
 
 import com.aiqfome.aiqchart.model.Bar;
@@ -43,98 +40,102 @@ public class BarChartView extends BaseBarChartView {
 
         final int nSets = data.size();
         final int nEntries = data.get(0).size();
+        final float zeroPosition = this.getZeroPosition();
 
         float offset;
+        float setOffset;
+        int setPosition;
         BarSet barSet;
         Bar bar;
 
-        for (int i = 0; i < nEntries; i++) {
+        // Draw only the groups inside the inner chart area
+        final int first = getFirstVisibleIndex(data.get(0), 0, nEntries);
+        final int last = getLastVisibleIndex(data.get(0), 0, nEntries);
+        countDrawnEntries((last - first) * nSets, nEntries * nSets);
+
+        // Draw backgrounds first, all at once, so they stay behind every bar
+        if (style.hasBarBackground) {
+            for (int i = first; i < last; i++) {
+                offset = data.get(0).getX(i) - drawingOffset;
+                for (int j = 0; j < nSets; j++) {
+                    if (!data.get(j).isVisible()) continue;
+                    drawBarBackground(offset, this.getInnerChartTop(), offset + barWidth,
+                            this.getInnerChartBottom());
+                    offset += barWidth + style.setSpacing;
+                }
+            }
+            drawBatch(canvas);
+        }
 
-            // Set first offset to draw a group of bars
-            offset = data.get(0).getEntry(i).getX() - drawingOffset;
+        // Draw set by set, so bars styled the same way are batched together
+        setPosition = 0;
+        for (int j = 0; j < nSets; j++) {
 
-            for (int j = 0; j < nSets; j++) {
+            barSet = (BarSet) data.get(j);
+            if (!barSet.isVisible()) continue;
 
-                barSet = (BarSet) data.get(j);
-                bar = (Bar) barSet.getEntry(i);
+            // Offset of the set's bar within each group, only visible sets take space
+            setOffset = setPosition * (barWidth + style.setSpacing) - drawingOffset;
+            setPosition++;
 
-                // If entry value is 0 it won't be drawn
-                if (!barSet.isVisible()) continue;
+            for (int i = first; i < last; i++) {
+
+                bar = (Bar) barSet.getEntry(i);
+                offset = data.get(0).getX(i) + setOffset;
 
                 // Style it!
-                if (!bar.hasGradientColor()) style.barPaint.setColor(bar.getColor());
-                else style.barPaint.setShader(
-                        new LinearGradient(bar.getX(), this.getZeroPosition(), bar.getX(), bar.getY(),
-                                bar.getGradientColors(), bar.getGradientPositions(),
-                                Shader.TileMode.MIRROR));
-                applyShadow(style.barPaint, barSet.getAlpha(), bar.getShadowDx(), bar
-                        .getShadowDy(), bar.getShadowRadius(), bar.getShadowColor());
-
-                // Draw background
-                if (style.hasBarBackground) {
-                    drawBarBackground(canvas, offset, this.getInnerChartTop(), offset + barWidth,
-                            this.getInnerChartBottom());
-                }
+                applyBarStyle(canvas, bar, barSet.getAlpha(), bar.getX(), zeroPosition, bar.getX(),
+                        bar.getY());
 
                 // Draw bar
                 if (bar.getValue() >= 0) // Positive
-                    drawBar(canvas, offset, bar.getY(), offset + barWidth, this.getZeroPosition());
+                    drawBar(canvas, offset, bar.getY(), offset + barWidth, zeroPosition);
                 else // Negative
-                    drawBar(canvas, offset, this.getZeroPosition(), offset + barWidth, bar.getY());
-
-                offset += barWidth;
-
-                // If last bar of group no set spacing is necessary
-                if (j != nSets - 1) offset += style.setSpacing;
+                    drawBar(canvas, offset, zeroPosition, offset + barWidth, bar.getY());
             }
         }
+        drawBatch(canvas);
     }
 
     @Override
     protected void onPreDrawChart(ArrayList<ChartSet> data) {
 
         // In case of only on entry
-        if (data.get(0).size() == 1) {
-            style.barSpacing = 0;
-            calculateBarsWidth(data.size(), 0, this.getInnerChartRight()
-                    - this.getInnerChartLeft()
-                    - this.getBorderSpacing() * 2);
-            // In case of more than one entry
-        } else calculateBarsWidth(data.size(), data.get(0).getEntry(0).getX(),
-                data.get(0).getEntry(1).getX());
-
+        if (data.get(0).size() == 1) style.barSpacing = 0;
+        barWidth = calculateBarsWidth(data, xRndr, yRndr);
         calculatePositionOffset(data.size());
     }
 
     @Override
-    void defineRegions(ArrayList<ArrayList<Region>> regions, ArrayList<ChartSet> data) {
+    void defineRegions(EntryRegions regions, ArrayList<ChartSet> data, float barWidth,
+                       float drawingOffset, float zeroPosition) {
 
         final int nSets = data.size();
         final int nEntries = data.get(0).size();
 
         float offset;
-        BarSet barSet;
-        Bar bar;
+        float value;
+        float y;
 
         for (int i = 0; i < nEntries; i++) {
 
             // Set first offset to draw a group of bars
-            offset = data.get(0).getEntry(i).getX() - drawingOffset;
+            offset = data.get(0).getX(i) - drawingOffset;
 
             for (int j = 0; j < nSets; j++) {
 
-                barSet = (BarSet) data.get(j);
-                bar = (Bar) barSet.getEntry(i);
-
-                if (bar.getValue() > 0 && (int) bar.getY() != (int) this.getZeroPosition())
-                    regions.get(j).get(i).set((int) offset, (int) bar.getY(),
-                            (int) (offset += barWidth), (int) this.getZeroPosition());
-                else if (bar.getValue() < 0 && (int) bar.getY() != (int) this.getZeroPosition())
-                    regions.get(j).get(i).set((int) offset, (int) this.getZeroPosition(),
-                            (int) (offset += barWidth), (int) bar.getY());
-                else // If bar.getValue() == 0, force region to 1 pixel
-                    regions.get(j).get(i).set((int) offset, (int) this.getZeroPosition(),
-                            (int) (offset += barWidth), (int) this.getZeroPosition() + 1);
+                value = data.get(j).getValue(i);
+                y = data.get(j).getY(i);
+
+                if (value > 0 && (int) y != (int) zeroPosition)
+                    regions.set(j, i, (int) offset, (int) y,
+                            (int) (offset += barWidth), (int) zeroPosition);
+                else if (value < 0 && (int) y != (int) zeroPosition)
+                    regions.set(j, i, (int) offset, (int) zeroPosition,
+                            (int) (offset += barWidth), (int) y);
+                else // If value == 0, force region to 1 pixel
+                    regions.set(j, i, (int) offset, (int) zeroPosition,
+                            (int) (offset += barWidth), (int) zeroPosition + 1);
 
                 // If last bar of group no set spacing is necessary
                 if (j != nSets - 1) offset += style.setSpacing;
@@ -3,17 +3,26 @@ package com.aiqfome.aiqchart.view;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
+import android.graphics.LinearGradient;
+import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.Path;
 import android.graphics.RectF;
+import android.graphics.Shader;
 import android.util.AttributeSet;
 
 import androidx.annotation.ColorInt;
 import androidx.annotation.FloatRange;
 
 import com.aiqfome.aiqchart.R;
+import com.aiqfome.aiqchart.model.Bar;
 import com.aiqfome.aiqchart.model.ChartSet;
+import com.aiqfome.aiqchart.renderer.XRenderer;
+import com.aiqfome.aiqchart.renderer.YRenderer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 
 
 /**
@@ -37,6 +46,42 @@ public abstract class BaseBarChartView extends ChartView {
      */
     float barWidth;
 
+    /**
+     * Geometry reused while drawing bars to avoid allocations in every frame
+     */
+    private final RectF mBarRect;
+
+    /**
+     * Gradient shaders reused between frames, one per array of gradient colors
+     */
+    private final IdentityHashMap<int[], Gradient> mGradients;
+
+    private final Matrix mGradientMatrix;
+
+    /**
+     * Bars, and their backgrounds, sharing the same style and waiting to be drawn together
+     */
+    private final Path mBarsPath;
+
+    private final Path mBackgroundsPath;
+
+    private boolean mIsBatching;
+
+    /**
+     * Style of the batched bars
+     */
+    private int mBatchColor;
+
+    private float mBatchAlpha;
+
+    private float mBatchShadowRadius;
+
+    private float mBatchShadowDx;
+
+    private float mBatchShadowDy;
+
+    private final int[] mBatchShadowColor;
+
 
     public BaseBarChartView(Context context, AttributeSet attrs) {
 
@@ -44,7 +89,12 @@ public abstract class BaseBarChartView extends ChartView {
 
         style = new Style(
                 context.getTheme().obtainStyledAttributes(attrs, R.styleable.BarChartAttrs, 0, 0));
-
+        mBarRect = new RectF();
+        mGradients = new IdentityHashMap<>();
+        mGradientMatrix = new Matrix();
+        mBarsPath = new Path();
+        mBackgroundsPath = new Path();
+        mBatchShadowColor = new int[4];
     }
 
 
@@ -53,6 +103,12 @@ public abstract class BaseBarChartView extends ChartView {
         super(context);
 
         style = new Style();
+        mBarRect = new RectF();
+        mGradients = new IdentityHashMap<>();
+        mGradientMatrix = new Matrix();
+        mBarsPath = new Path();
+        mBackgroundsPath = new Path();
+        mBatchShadowColor = new int[4];
     }
 
     @Override
@@ -67,6 +123,7 @@ public abstract class BaseBarChartView extends ChartView {
 
         super.onDetachedFromWindow();
         style.clean();
+        mGradients.clear();
     }
 
     @Override
@@ -92,26 +149,164 @@ public abstract class BaseBarChartView extends ChartView {
      */
     void drawBar(Canvas canvas, float left, float top, float right, float bottom) {
 
-        canvas.drawRoundRect(
-                new RectF(Math.round(left), Math.round(top), Math.round(right), Math.round(bottom)),
-                style.cornerRadius, style.cornerRadius, style.barPaint);
+        mBarRect.set(Math.round(left), Math.round(top), Math.round(right), Math.round(bottom));
+        if (mIsBatching) {
+            mBarsPath.addRoundRect(mBarRect, style.cornerRadius, style.cornerRadius,
+                    Path.Direction.CW);
+        } else {
+            drawBatch(canvas);
+            canvas.drawRoundRect(mBarRect, style.cornerRadius, style.cornerRadius,
+                    style.barPaint);
+        }
     }
 
 
     /**
-     * Draws the background (not the fill) of a bar, the one behind the bar.
+     * Draws a bar, or part of it, without rounded corners.
+     *
+     * @param canvas {@link Canvas} used to draw the bar
+     * @param left   The X coordinate of the left side of the rectangle
+     * @param top    The Y coordinate of the top of the rectangle
+     * @param right  The X coordinate of the right side of the rectangle
+     * @param bottom The Y coordinate of the bottom of the rectangle
+     */
+    void drawBarRect(Canvas canvas, float left, float top, float right, float bottom) {
+
+        if (mIsBatching) {
+            mBarsPath.addRect(left, top, right, bottom, Path.Direction.CW);
+        } else {
+            drawBatch(canvas);
+            canvas.drawRect(left, top, right, bottom, style.barPaint);
+        }
+    }
+
+
+    /**
+     * Adds the background (not the fill) of a bar, the one behind the bar.
+     * Backgrounds are drawn together, before any bar, by the next {@link #drawBatch(Canvas)}.
      *
-     * @param canvas {@link Canvas} used to draw the background
      * @param left   The X coordinate of the left side of the rectangle
      * @param top    The Y coordinate of the top of the rectangle
      * @param right  The X coordinate of the right side of the rectangle
      * @param bottom The Y coordinate of the bottom of the rectangle
      */
-    void drawBarBackground(Canvas canvas, float left, float top, float right, float bottom) {
+    void drawBarBackground(float left, float top, float right, float bottom) {
 
-        canvas.drawRoundRect(
-                new RectF(Math.round(left), Math.round(top), Math.round(right), Math.round(bottom)),
-                style.cornerRadius, style.cornerRadius, style.barBackgroundPaint);
+        mBarRect.set(Math.round(left), Math.round(top), Math.round(right), Math.round(bottom));
+        mBackgroundsPath.addRoundRect(mBarRect, style.cornerRadius, style.cornerRadius,
+                Path.Direction.CW);
+    }
+
+
+    /**
+     * Styles the bar paint as the given bar, filled with its color.
+     * Bars styled the same way are batched, to be drawn together by a single draw call.
+     * Batched bars are drawn whenever the style changes.
+     *
+     * @param canvas {@link Canvas} where batched bars are drawn in case the style changes
+     * @param bar    {@link Bar} to get the style from
+     * @param alpha  Alpha of the bar's set
+     */
+    void applyBarStyle(Canvas canvas, Bar bar, float alpha) {
+
+        final int[] shadowColor = bar.getShadowColor();
+        if (mIsBatching && bar.getColor() == mBatchColor && alpha == mBatchAlpha
+                && bar.getShadowRadius() == mBatchShadowRadius
+                && bar.getShadowDx() == mBatchShadowDx && bar.getShadowDy() == mBatchShadowDy
+                && Arrays.equals(shadowColor, mBatchShadowColor)) return;
+
+        drawBatch(canvas);
+        mIsBatching = true;
+        mBatchColor = bar.getColor();
+        mBatchAlpha = alpha;
+        mBatchShadowRadius = bar.getShadowRadius();
+        mBatchShadowDx = bar.getShadowDx();
+        mBatchShadowDy = bar.getShadowDy();
+        System.arraycopy(shadowColor, 0, mBatchShadowColor, 0, mBatchShadowColor.length);
+
+        style.barPaint.setShader(null);
+        style.barPaint.setColor(mBatchColor);
+        applyShadow(style.barPaint, alpha, mBatchShadowDx, mBatchShadowDy, mBatchShadowRadius,
+                shadowColor);
+    }
+
+
+    /**
+     * Styles the bar paint as the given bar, filled with its gradient if any.
+     * Gradients are positioned for each bar, so those bars are drawn on their own.
+     *
+     * @param canvas {@link Canvas} where batched bars are drawn in case the style changes
+     * @param bar    {@link Bar} to get the style from
+     * @param alpha  Alpha of the bar's set
+     * @param x0     The X coordinate where the gradient starts
+     * @param y0     The Y coordinate where the gradient starts
+     * @param x1     The X coordinate where the gradient ends
+     * @param y1     The Y coordinate where the gradient ends
+     */
+    void applyBarStyle(Canvas canvas, Bar bar, float alpha, float x0, float y0, float x1,
+                       float y1) {
+
+        if (!bar.hasGradientColor()) {
+            applyBarStyle(canvas, bar, alpha);
+            return;
+        }
+
+        drawBatch(canvas);
+        applyBarFill(bar, x0, y0, x1, y1);
+        applyShadow(style.barPaint, alpha, bar.getShadowDx(), bar.getShadowDy(),
+                bar.getShadowRadius(), bar.getShadowColor());
+    }
+
+
+    /**
+     * Draws bars, and their backgrounds, batched so far. Backgrounds go first to stay behind.
+     * To be called once all bars have been drawn.
+     *
+     * @param canvas {@link Canvas} used to draw the bars
+     */
+    void drawBatch(Canvas canvas) {
+
+        if (!mBackgroundsPath.isEmpty()) {
+            canvas.drawPath(mBackgroundsPath, style.barBackgroundPaint);
+            mBackgroundsPath.rewind();
+        }
+        if (!mBarsPath.isEmpty()) {
+            canvas.drawPath(mBarsPath, style.barPaint);
+            mBarsPath.rewind();
+        }
+        mIsBatching = false;
+    }
+
+
+    /**
+     * Applies the bar's fill to the bar paint. In case of gradient, the shader goes from
+     * (x0, y0) to (x1, y1). Shaders are created once and then only moved to the bar's position.
+     *
+     * @param bar {@link Bar} to get the fill from
+     * @param x0  The X coordinate where the gradient starts
+     * @param y0  The Y coordinate where the gradient starts
+     * @param x1  The X coordinate where the gradient ends
+     * @param y1  The Y coordinate where the gradient ends
+     */
+    void applyBarFill(Bar bar, float x0, float y0, float x1, float y1) {
+
+        if (!bar.hasGradientColor()) {
+            style.barPaint.setShader(null);
+            style.barPaint.setColor(bar.getColor());
+            return;
+        }
+
+        Gradient gradient = mGradients.get(bar.getGradientColors());
+        if (gradient == null || gradient.positions != bar.getGradientPositions()) {
+            gradient = new Gradient(bar.getGradientColors(), bar.getGradientPositions());
+            mGradients.put(bar.getGradientColors(), gradient);
+        }
+
+        // Maps the unit gradient, from (0, 0) to (1, 0), into the bar segment
+        mGradientMatrix.setSinCos(y1 - y0, x1 - x0);
+        mGradientMatrix.postTranslate(x0, y0);
+        gradient.shader.setLocalMatrix(mGradientMatrix);
+        style.barPaint.setShader(gradient.shader);
     }
 
 
@@ -124,7 +319,51 @@ public abstract class BaseBarChartView extends ChartView {
      */
     void calculateBarsWidth(int nSets, float x0, float x1) {
 
-        barWidth = ((x1 - x0) - style.barSpacing - style.setSpacing * (nSets - 1)) / nSets;
+        barWidth = calculateBarsWidth(nSets, x0, x1, style.barSpacing);
+    }
+
+
+    /**
+     * Calculates Bar width based on the distance of two labels, with the given spacing.
+     *
+     * @param nSets      Number of sets
+     * @param x0         Coordinate(n)
+     * @param x1         Coordinate(n+1)
+     * @param barSpacing Spacing between groups of bars
+     * @return Bar width.
+     */
+    float calculateBarsWidth(int nSets, float x0, float x1, float barSpacing) {
+
+        return ((x1 - x0) - barSpacing - style.setSpacing * (nSets - 1)) / nSets;
+    }
+
+
+    /**
+     * Calculates Bar width of data laid out by the given renderers, based on the distance
+     * of its first two labels, or on the inner chart size in case of only one entry.
+     *
+     * @param data  Chart data, already laid out
+     * @param xRndr Horizontal renderer, already laid out
+     * @param yRndr Vertical renderer, already laid out
+     * @return Bar width.
+     */
+    float calculateBarsWidth(ArrayList<ChartSet> data, XRenderer xRndr, YRenderer yRndr) {
+
+        final ChartSet set = data.get(0);
+        final boolean vertical = getOrientation() == Orientation.VERTICAL;
+
+        // In case of only one entry
+        if (set.size() == 1) {
+            final float size = vertical
+                    ? xRndr.getInnerChartRight() - xRndr.getInnerChartLeft()
+                    : yRndr.getInnerChartBottom() - yRndr.getInnerChartTop();
+            return calculateBarsWidth(data.size(), 0, size - getBorderSpacing() * 2, 0);
+        }
+
+        // In case of more than one entry
+        if (vertical)
+            return calculateBarsWidth(data.size(), set.getX(0), set.getX(1), style.barSpacing);
+        return calculateBarsWidth(data.size(), set.getY(1), set.getY(0), style.barSpacing);
     }
 
 
@@ -136,9 +375,66 @@ public abstract class BaseBarChartView extends ChartView {
      */
     void calculatePositionOffset(int size) {
 
-        if (size % 2 == 0)
-            drawingOffset = size * barWidth / 2 + (size - 1) * (style.setSpacing / 2);
-        else drawingOffset = size * barWidth / 2 + ((size - 1) / 2) * style.setSpacing;
+        drawingOffset = calculatePositionOffset(size, barWidth);
+    }
+
+
+    /**
+     * Offset where to start drawing the first bar of each group, for the given bar width.
+     *
+     * @param size     Size of sets
+     * @param barWidth Bar width
+     * @return Offset from the group's label.
+     */
+    float calculatePositionOffset(int size, float barWidth) {
+
+        if (size % 2 == 0) return size * barWidth / 2 + (size - 1) * (style.setSpacing / 2);
+        return size * barWidth / 2 + ((size - 1) / 2) * style.setSpacing;
+    }
+
+
+    @Override
+    void defineRegions(EntryRegions regions, ArrayList<ChartSet> data) {
+
+        defineRegions(regions, data, barWidth, drawingOffset, getZeroPosition());
+    }
+
+
+    /**
+     * (Optional) To be overridden in order for each bar chart to define its regions from
+     * the given bars layout, rather than from the one being drawn.
+     *
+     * @param regions       Empty list of regions where result of this method must be assigned
+     * @param data          Chart data, already laid out
+     * @param barWidth      Bar width
+     * @param drawingOffset Offset where to start drawing the first bar of each group
+     * @param zeroPosition  Position of 0 value
+     */
+    void defineRegions(EntryRegions regions, ArrayList<ChartSet> data, float barWidth,
+                       float drawingOffset, float zeroPosition) {
+    }
+
+
+    /**
+     * Bars are laid out in background the same way as on the UI thread.
+     */
+    @Override
+    Object prepareChart(ChartLayout layout) {
+
+        final float barWidth = calculateBarsWidth(layout.data, layout.xRndr, layout.yRndr);
+        final float drawingOffset = calculatePositionOffset(layout.data.size(), barWidth);
+        defineRegions(layout.regions, layout.data, barWidth, drawingOffset,
+                getZeroPosition(layout.xRndr, layout.yRndr));
+        return new BarsLayout(barWidth, drawingOffset);
+    }
+
+
+    @Override
+    void applyPreparedChart(Object state) {
+
+        final BarsLayout layout = (BarsLayout) state;
+        barWidth = layout.barWidth;
+        drawingOffset = layout.drawingOffset;
     }
 
 	
@@ -194,6 +490,44 @@ public abstract class BaseBarChartView extends ChartView {
     }
 
 
+    /**
+     * Bars layout prepared in background, applied once swapped in.
+     */
+    static class BarsLayout {
+
+        final float barWidth;
+
+        final float drawingOffset;
+
+
+        BarsLayout(float barWidth, float drawingOffset) {
+
+            this.barWidth = barWidth;
+            this.drawingOffset = drawingOffset;
+        }
+
+    }
+
+
+    /**
+     * Gradient with unit length to be positioned through its local matrix.
+     */
+    private static class Gradient {
+
+        private final float[] positions;
+
+        private final LinearGradient shader;
+
+
+        Gradient(int[] colors, float[] positions) {
+
+            this.positions = positions;
+            shader = new LinearGradient(0, 0, 1, 0, colors, positions, Shader.TileMode.MIRROR);
+        }
+
+    }
+
+
     /**
      * Style object containing bar chart specific customization.
      */
@@ -1,13 +1,16 @@
 package com.aiqfome.aiqchart.view;
 
 import android.content.Context;
+import android.graphics.Canvas;
 import android.util.AttributeSet;
 
+import androidx.annotation.NonNull;
+
 import com.aiqfome.aiqchart.model.Bar;
-import com.aiqfome.aiqchart.model.BarSet;
 import com.aiqfome.aiqchart.model.ChartSet;
 
 import java.util.ArrayList;
+import java.util.concurrent.Executor;
 
 
 /**
@@ -15,18 +18,67 @@ import java.util.ArrayList;
  */
 public abstract class BaseStackBarChartView extends BaseBarChartView {
 
+    /**
+     * Segment flags, telling how each segment is drawn
+     */
+    private static final byte SEGMENT_DRAWN = 1;
+
+    private static final byte SEGMENT_ROUNDED = 1 << 1;
+
+    private static final byte SEGMENT_PATCH_LEFT = 1 << 2;
+
+    private static final byte SEGMENT_PATCH_TOP = 1 << 3;
+
+    private static final byte SEGMENT_PATCH_RIGHT = 1 << 4;
+
+    private static final byte SEGMENT_PATCH_BOTTOM = 1 << 5;
+
+    /**
+     * Pixels added to positive segments of vertical stacks stacked on another positive one,
+     * compensating the loss of precision of truncated coordinates
+     */
+    private static final float PRECISION_COMPENSATION = 2;
+
 
     /**
      * Whether to calculate max value or not
      */
     private boolean mCalcMaxValue;
 
+    /**
+     * Stack layout, segment coordinates (left, top, right, bottom) and flags
+     */
+    private float[] mSegments;
+
+    private byte[] mSegmentFlags;
+
+    /**
+     * Whether the layout followed entries being animated in the last frame drawn
+     */
+    private boolean mLayoutAnimated;
+
+    /**
+     * State the layout depends on, besides entries coordinates, as of the last layout
+     */
+    private boolean[] mLaidOutVisibility;
+
+    private int mLaidOutEntries;
+
+    private float mLaidOutBarWidth;
+
+    private float mLaidOutBarSpacing;
+
+    private float mLaidOutCornerRadius;
+
 
     public BaseStackBarChartView(Context context, AttributeSet attrs) {
 
         super(context, attrs);
 
         mCalcMaxValue = true;
+        mSegments = new float[0];
+        mSegmentFlags = new byte[0];
+        mLaidOutVisibility = new boolean[0];
     }
 
 
@@ -35,79 +87,250 @@ public abstract class BaseStackBarChartView extends BaseBarChartView {
         super(context);
 
         mCalcMaxValue = true;
+        mSegments = new float[0];
+        mSegmentFlags = new byte[0];
+        mLaidOutVisibility = new boolean[0];
     }
 
 
     /**
-     * Finds the set that will stay in the bottom of the bar.
+     * Lays out every stack segment in screen coordinates. Each entry of each set is a segment,
+     * stored at index set * number of entries + entry, four coordinates each.
+     * Runs once per data or size change, and once per frame while entries are animated.
      *
-     * @param entryIndex Entry index
-     * @param data       {@link ArrayList} of {@link com.aiqfome.aiqchart.model.ChartSet}
-     *                   to use while drawing the Chart
-     * @return The bottom set index
+     * @param data {@link ArrayList} of {@link com.aiqfome.aiqchart.model.ChartSet}
+     *             to lay out
      */
-    static int discoverBottomSet(int entryIndex, ArrayList<ChartSet> data) {
+    void layoutStacks(ArrayList<ChartSet> data) {
 
-        int dataSize = data.size();
-        int index;
-
-        boolean hasNegativeValues = false;
-        for (index = 0; index < dataSize; index++) {
-            if (data.get(index).getEntry(entryIndex).getValue() < 0) {
-                hasNegativeValues = true;
-                break;
-            }
+        final int nSets = data.size();
+        final int nEntries = data.get(0).size();
+        if (mSegmentFlags.length < nSets * nEntries) {
+            mSegments = new float[nSets * nEntries * 4];
+            mSegmentFlags = new byte[nSets * nEntries];
         }
+        layoutStacks(data, barWidth, getZeroPosition(), mSegments, mSegmentFlags);
+
+        // Keep what the layout depended on, to find out when it gets stale
+        if (mLaidOutVisibility.length != nSets) mLaidOutVisibility = new boolean[nSets];
+        for (int j = 0; j < nSets; j++)
+            mLaidOutVisibility[j] = data.get(j).isVisible();
+        mLaidOutEntries = nEntries;
+        mLaidOutBarWidth = barWidth;
+        mLaidOutBarSpacing = style.barSpacing;
+        mLaidOutCornerRadius = style.cornerRadius;
+    }
 
-        if (hasNegativeValues) { // Find last value < 0
-            for (index = dataSize - 1; index >= 0; index--) {
-                if (data.get(index).getEntry(entryIndex).getValue() < 0) break;
+
+    /**
+     * Lays out every stack segment into the given buffers, for the given bar width
+     * and position of 0 value. Nothing else of the chart is written.
+     *
+     * @param data         {@link ArrayList} of {@link com.aiqfome.aiqchart.model.ChartSet}
+     *                     to lay out
+     * @param barWidth     Bar width
+     * @param zeroPosition Position of 0 value
+     * @param segments     Buffer receiving four coordinates per segment
+     * @param segmentFlags Buffer receiving the flags of each segment
+     */
+    private void layoutStacks(ArrayList<ChartSet> data, float barWidth, float zeroPosition,
+                              float[] segments, byte[] segmentFlags) {
+
+        final int nSets = data.size();
+        final int nEntries = data.get(0).size();
+        final boolean vertical = getOrientation() == Orientation.VERTICAL;
+        // Positive values grow up in vertical stacks and right in horizontal ones
+        final int direction = vertical ? -1 : 1;
+
+        ChartSet set;
+        float value;
+        float barSize;
+        float center;
+        float from;
+        float to;
+        float posEnd;
+        float negEnd;
+        float compensation;
+        int bottomSetIndex;
+        int topSetIndex;
+        int k;
+        byte flags;
+        for (int i = 0; i < nEntries; i++) {
+
+            // Sets at the bottom and top of the stack, taking into account entries with value 0
+            int firstNonZero = -1;
+            int lastNegative = -1;
+            int lastPositive = -1;
+            for (int j = 0; j < nSets; j++) {
+                value = data.get(j).getValue(i);
+                if (value != 0 && firstNonZero == -1) firstNonZero = j;
+                if (value < 0) lastNegative = j;
+                else if (value > 0) lastPositive = j;
             }
-        } else { // Find first non null value
-            for (index = 0; index < dataSize; index++) {
-                if (data.get(index).getEntry(entryIndex).getValue() != 0) break;
+            bottomSetIndex = (lastNegative != -1) ? lastNegative : firstNonZero;
+            topSetIndex = (lastPositive != -1) ? lastPositive : firstNonZero;
+
+            // End of the positive and negative stacks, where the next segment starts
+            posEnd = zeroPosition;
+            negEnd = zeroPosition;
+            compensation = 0;
+
+            for (int j = 0; j < nSets; j++) {
+
+                set = data.get(j);
+                value = set.getValue(i);
+                center = vertical ? set.getX(i) : set.getY(i);
+                barSize = Math.abs(zeroPosition - (vertical ? set.getY(i) : set.getX(i)));
+                k = j * nEntries + i;
+
+                if (!set.isVisible()) {
+                    from = posEnd;
+                    to = posEnd;
+                } else if (value > 0) {
+                    from = posEnd;
+                    to = posEnd + direction * (barSize + compensation);
+                    posEnd = to;
+                    if (vertical) compensation = PRECISION_COMPENSATION;
+                } else if (value < 0) {
+                    from = negEnd;
+                    to = negEnd - direction * barSize;
+                    negEnd = to;
+                } else { // Value 0 takes 1 pixel, only to have a region
+                    from = posEnd;
+                    to = posEnd + direction * (1 + compensation);
+                }
+
+                if (vertical)
+                    setSegment(segments, k, center - barWidth / 2, Math.min(from, to),
+                            center + barWidth / 2, Math.max(from, to));
+                else
+                    setSegment(segments, k, Math.min(from, to), center - barWidth / 2,
+                            Math.max(from, to), center + barWidth / 2);
+
+                // Size of bar < 2 isn't drawn due to the loss of precision
+                flags = 0;
+                if (set.isVisible() && value != 0 && barSize >= 2) {
+                    flags = SEGMENT_DRAWN;
+                    if (j == bottomSetIndex) {
+                        flags |= SEGMENT_ROUNDED;
+                        if (bottomSetIndex != topSetIndex && style.cornerRadius != 0)
+                            flags |= vertical ? SEGMENT_PATCH_TOP : SEGMENT_PATCH_RIGHT;
+                    } else if (j == topSetIndex) {
+                        flags |= SEGMENT_ROUNDED;
+                        flags |= vertical ? SEGMENT_PATCH_BOTTOM : SEGMENT_PATCH_LEFT;
+                    }
+                }
+                segmentFlags[k] = flags;
             }
         }
-        return index;
     }
 
 
     /**
-     * Finds the set that will be on top.
-     *
-     * @param entryIndex Entry index
-     * @param data       {@link ArrayList} of {@link com.aiqfome.aiqchart.model.ChartSet}
-     *                   to use while drawing the Chart
-     * @return The top set index
+     * Whether the layout no longer matches the data, either for sets shown or dismissed
+     * since, or for bars style changed since.
      */
-    static int discoverTopSet(int entryIndex, ArrayList<ChartSet> data) {
+    private boolean isLayoutStale(ArrayList<ChartSet> data) {
+
+        if (data.size() != mLaidOutVisibility.length || data.get(0).size() != mLaidOutEntries
+                || barWidth != mLaidOutBarWidth || style.barSpacing != mLaidOutBarSpacing
+                || style.cornerRadius != mLaidOutCornerRadius)
+            return true;
+        for (int j = 0; j < data.size(); j++)
+            if (data.get(j).isVisible() != mLaidOutVisibility[j]) return true;
+        return false;
+    }
 
-        int dataSize = data.size();
-        int index;
 
-        boolean hasPositiveValues = false;
-        for (index = 0; index < dataSize; index++) {
-            if (data.get(index).getEntry(entryIndex).getValue() > 0) {
-                hasPositiveValues = true;
-                break;
+    /**
+     * Stores segment coordinates truncated, as drawn and used by regions.
+     */
+    private static void setSegment(float[] segments, int index, float left, float top,
+                                   float right, float bottom) {
+
+        segments[index * 4] = (int) left;
+        segments[index * 4 + 1] = (int) top;
+        segments[index * 4 + 2] = (int) right;
+        segments[index * 4 + 3] = (int) bottom;
+    }
+
+
+    /**
+     * Draws the segments of the given entries as laid out by {@link #layoutStacks(ArrayList)}.
+     * Segments at the bottom and top have rounded corners, patched where they touch the stack.
+     */
+    private void drawSegments(Canvas canvas, ArrayList<ChartSet> data, int first, int last) {
+
+        final int nSets = data.size();
+        final int nEntries = data.get(0).size();
+
+        ChartSet set;
+        Bar bar;
+        float left;
+        float top;
+        float right;
+        float bottom;
+        int k;
+        byte flags;
+
+        // Draw backgrounds first, all at once, so they stay behind every bar
+        if (style.hasBarBackground) {
+            set = data.get(0);
+            for (int i = first; i < last; i++) {
+                if (getOrientation() == Orientation.VERTICAL)
+                    drawBarBackground((int) (set.getX(i) - barWidth / 2),
+                            (int) getInnerChartTop(), (int) (set.getX(i) + barWidth / 2),
+                            (int) getInnerChartBottom());
+                else
+                    drawBarBackground((int) getInnerChartLeft(),
+                            (int) (set.getY(i) - barWidth / 2), (int) getInnerChartRight(),
+                            (int) (set.getY(i) + barWidth / 2));
             }
+            drawBatch(canvas);
         }
 
-        if (hasPositiveValues) { // Find last value > 0
-            for (index = dataSize - 1; index >= 0; index--)
-                if (data.get(index).getEntry(entryIndex).getValue() > 0) break;
-        } else { // Find first non null value
-            for (index = 0; index < dataSize; index++) {
-                if (data.get(index).getEntry(entryIndex).getValue() != 0) break;
+        // Draw set by set, so segments styled the same way are batched together
+        for (int j = 0; j < nSets; j++) {
+
+            set = data.get(j);
+            for (int i = first; i < last; i++) {
+
+                k = j * nEntries + i;
+                flags = mSegmentFlags[k];
+                if ((flags & SEGMENT_DRAWN) == 0) continue;
+
+                bar = (Bar) set.getEntry(i);
+                applyBarStyle(canvas, bar, set.getAlpha());
+
+                left = mSegments[k * 4];
+                top = mSegments[k * 4 + 1];
+                right = mSegments[k * 4 + 2];
+                bottom = mSegments[k * 4 + 3];
+
+                if ((flags & SEGMENT_ROUNDED) == 0) {
+                    drawBarRect(canvas, left, top, right, bottom);
+                    continue;
+                }
+                drawBar(canvas, left, top, right, bottom);
+
+                // Patch corners touching the rest of the stack
+                if ((flags & SEGMENT_PATCH_TOP) != 0)
+                    drawBarRect(canvas, left, top, right, (int) (top + (bottom - top) / 2));
+                else if ((flags & SEGMENT_PATCH_BOTTOM) != 0)
+                    drawBarRect(canvas, left, (int) (bottom - (bottom - top) / 2), right, bottom);
+                else if ((flags & SEGMENT_PATCH_RIGHT) != 0)
+                    drawBarRect(canvas, (int) (right - (right - left) / 2), top, right, bottom);
+                else if ((flags & SEGMENT_PATCH_LEFT) != 0)
+                    drawBarRect(canvas, left, top, (int) (left + (right - left) / 2), bottom);
             }
         }
-        return index;
     }
 
+
     @Override
-    void calculateBarsWidth(int nSets, float x0, float x1) {
+    float calculateBarsWidth(int nSets, float x0, float x1, float barSpacing) {
 
-        barWidth = x1 - x0 - style.barSpacing;
+        return x1 - x0 - barSpacing;
     }
 
 
@@ -119,8 +342,7 @@ public abstract class BaseStackBarChartView extends BaseBarChartView {
 
         float positiveStackValue;
         float negativeStackValue;
-        BarSet barSet;
-        Bar bar;
+        float value;
         int maxStackValue = 0;
         int minStackValue = 0;
 
@@ -133,11 +355,9 @@ public abstract class BaseStackBarChartView extends BaseBarChartView {
             negativeStackValue = 0;
             for (int j = 0; j < dataSize; j++) {
 
-                barSet = (BarSet) data.get(j);
-                bar = (Bar) barSet.getEntry(i);
-
-                if (bar.getValue() >= 0) positiveStackValue += bar.getValue();
-                else negativeStackValue += bar.getValue();
+                value = data.get(j).getValue(i);
+                if (value >= 0) positiveStackValue += value;
+                else negativeStackValue += value;
             }
 
             if (maxStackValue < (int) Math.ceil(positiveStackValue))
@@ -157,6 +377,104 @@ public abstract class BaseStackBarChartView extends BaseBarChartView {
 	 * --------------------------------
 	 */
 
+    @Override
+    public void onDrawChart(Canvas canvas, ArrayList<ChartSet> data) {
+
+        final int nSets = data.size();
+        final int nEntries = data.get(0).size();
+
+        // Entries move on every frame while animating, layout follows them in bulk
+        if (isAnimating() || mLayoutAnimated || isLayoutStale(data)) {
+            // Bars width depends on spacing, which may have changed since shown
+            if (style.barSpacing != mLaidOutBarSpacing) onPreDrawChart(data);
+            layoutStacks(data);
+            mLayoutAnimated = isAnimating();
+        }
+
+        // Draw only the groups inside the inner chart area
+        final int first = getFirstVisibleIndex(data.get(0), 0, nEntries);
+        final int last = getLastVisibleIndex(data.get(0), 0, nEntries);
+        countDrawnEntries((last - first) * nSets, nEntries * nSets);
+
+        drawSegments(canvas, data, first, last);
+        drawBatch(canvas);
+    }
+
+    @Override
+    void defineRegions(EntryRegions regions, ArrayList<ChartSet> data) {
+
+        layoutStacks(data);
+        defineRegions(regions, data, mSegments);
+    }
+
+
+    /**
+     * Defines regions as the given stack segments.
+     *
+     * @param regions  Empty list of regions where result of this method must be assigned
+     * @param data     {@link ArrayList} of {@link com.aiqfome.aiqchart.model.ChartSet}
+     *                 laid out into segments
+     * @param segments Stack segments of the data
+     */
+    private static void defineRegions(EntryRegions regions, ArrayList<ChartSet> data,
+                                      float[] segments) {
+
+        final int nEntries = data.get(0).size();
+        int k;
+        for (int j = 0; j < data.size(); j++) {
+            // Sets dismissed since last defined can't be tapped anymore
+            if (!data.get(j).isVisible()) {
+                for (int i = 0; i < nEntries; i++)
+                    regions.set(j, i, 0, 0, 0, 0);
+                continue;
+            }
+            for (int i = 0; i < nEntries; i++) {
+                k = (j * nEntries + i) * 4;
+                regions.set(j, i, (int) segments[k], (int) segments[k + 1],
+                        (int) segments[k + 2], (int) segments[k + 3]);
+            }
+        }
+    }
+
+    /**
+     * Stacks are laid out into segments of their own in background, shared with regions.
+     */
+    @Override
+    Object prepareChart(ChartLayout layout) {
+
+        final ArrayList<ChartSet> data = layout.data;
+        final int nSets = data.size();
+        final int nEntries = data.get(0).size();
+
+        final float barWidth = calculateBarsWidth(data, layout.xRndr, layout.yRndr);
+        final float[] segments = new float[nSets * nEntries * 4];
+        final byte[] segmentFlags = new byte[nSets * nEntries];
+        layoutStacks(data, barWidth, getZeroPosition(layout.xRndr, layout.yRndr), segments,
+                segmentFlags);
+        defineRegions(layout.regions, data, segments);
+
+        final boolean[] visibility = new boolean[nSets];
+        for (int j = 0; j < nSets; j++)
+            visibility[j] = data.get(j).isVisible();
+        return new StackLayout(barWidth, segments, segmentFlags, visibility, nEntries,
+                style.barSpacing, style.cornerRadius);
+    }
+
+    @Override
+    void applyPreparedChart(Object state) {
+
+        super.applyPreparedChart(state);
+
+        final StackLayout layout = (StackLayout) state;
+        mSegments = layout.segments;
+        mSegmentFlags = layout.segmentFlags;
+        mLaidOutVisibility = layout.visibility;
+        mLaidOutEntries = layout.nEntries;
+        mLaidOutBarWidth = layout.barWidth;
+        mLaidOutBarSpacing = layout.barSpacing;
+        mLaidOutCornerRadius = layout.cornerRadius;
+    }
+
     @Override
     public void show() {
 
@@ -164,6 +482,13 @@ public abstract class BaseStackBarChartView extends BaseBarChartView {
         super.show();
     }
 
+    @Override
+    public void showAsync(@NonNull Executor executor) {
+
+        if (mCalcMaxValue) calculateMaxStackBarValue();
+        super.showAsync(executor);
+    }
+
     @Override
     public ChartView setAxisBorderValues(float minValue, float maxValue, float step) {
 
@@ -171,4 +496,37 @@ public abstract class BaseStackBarChartView extends BaseBarChartView {
         return super.setAxisBorderValues(minValue, maxValue, step);
     }
 
+
+    /**
+     * Stacks layout prepared in background, along with what it depended on.
+     */
+    static class StackLayout extends BarsLayout {
+
+        final float[] segments;
+
+        final byte[] segmentFlags;
+
+        final boolean[] visibility;
+
+        final int nEntries;
+
+        final float barSpacing;
+
+        final float cornerRadius;
+
+
+        StackLayout(float barWidth, float[] segments, byte[] segmentFlags,
+                    boolean[] visibility, int nEntries, float barSpacing, float cornerRadius) {
+
+            super(barWidth, 0);
+            this.segments = segments;
+            this.segmentFlags = segmentFlags;
+            this.visibility = visibility;
+            this.nEntries = nEntries;
+            this.barSpacing = barSpacing;
+            this.cornerRadius = cornerRadius;
+        }
+
+    }
+
 }
\ No newline at end of file
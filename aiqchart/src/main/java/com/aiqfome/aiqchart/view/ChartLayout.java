@@ -0,0 +1,93 @@
+package com.aiqfome.aiqchart.view;
+
+import com.aiqfome.aiqchart.model.ChartSet;
+import com.aiqfome.aiqchart.renderer.XRenderer;
+import com.aiqfome.aiqchart.renderer.YRenderer;
+
+import java.util.ArrayList;
+
+
+/**
+ * Chart laid out off the UI thread from a snapshot of its data. Axis renderers and style
+ * are copies of the chart's own, so the chart keeps being drawn meanwhile. Once prepared,
+ * labels, display coordinates and regions aren't modified anymore, they are swapped into
+ * the chart at once on the UI thread.
+ */
+final class ChartLayout {
+
+    /**
+     * Snapshot of the chart data, one detached copy per set
+     */
+    final ArrayList<ChartSet> data;
+
+    final XRenderer xRndr;
+
+    final YRenderer yRndr;
+
+    final ChartView.Style style;
+
+    /**
+     * Threshold line values, start and end interleaved
+     */
+    final float[] thresholdValues;
+
+    /**
+     * Chart borders including padding, top border only once the font is known
+     */
+    final int chartLeft;
+
+    int chartTop;
+
+    final int chartRight;
+
+    final int chartBottom;
+
+    /**
+     * Threshold line screen coordinates, start and end interleaved
+     */
+    float[] thresholdPos;
+
+    /**
+     * Display coordinates of each set
+     */
+    float[][] x;
+
+    float[][] y;
+
+    final EntryRegions regions;
+
+    /**
+     * State drawing depends on besides display coordinates, specific to each chart,
+     * null if none
+     */
+    Object chartState;
+
+    /**
+     * Times spent laying out, reported once swapped in
+     */
+    long styleTime;
+
+    long renderersTime;
+
+    long digestTime;
+
+    long regionsTime;
+
+
+    ChartLayout(ArrayList<ChartSet> data, XRenderer xRndr, YRenderer yRndr,
+                ChartView.Style style, float[] thresholdValues, int left, int top, int right,
+                int bottom) {
+
+        this.data = data;
+        this.xRndr = xRndr;
+        this.yRndr = yRndr;
+        this.style = style;
+        this.thresholdValues = thresholdValues;
+        chartLeft = left;
+        chartTop = top;
+        chartRight = right;
+        chartBottom = bottom;
+        regions = new EntryRegions();
+    }
+
+}
@@ -1,16 +1,16 @@
 package com.aiqfome.aiqchart.view;
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Rect;
-import android.graphics.Region;
 import android.graphics.Typeface;
+import android.os.Build;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.View;
@@ -26,6 +26,7 @@ import com.aiqfome.aiqchart.R;
 import com.aiqfome.aiqchart.model.ChartSet;
 import com.aiqfome.aiqchart.animation.Animation;
 import com.aiqfome.aiqchart.animation.ChartAnimationListener;
+import com.aiqfome.aiqchart.listener.OnChartMetricsListener;
 import com.aiqfome.aiqchart.listener.OnEntryClickListener;
 import com.aiqfome.aiqchart.model.ChartEntry;
 import com.aiqfome.aiqchart.renderer.AxisRenderer;
@@ -35,6 +36,8 @@ import com.aiqfome.aiqchart.tooltip.Tooltip;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
 
 import static com.aiqfome.aiqchart.util.Preconditions.checkPositionIndex;
 import static com.aiqfome.aiqchart.util.Preconditions.checkNotNull;
@@ -52,11 +55,17 @@ public abstract class ChartView extends RelativeLayout {
     private static final int DEFAULT_HEIGHT = 100;
 
     /**
-     * Horizontal and Vertical position controllers
+     * Slack allowed when pacing frames, as vsync timestamps jitter
      */
-    final XRenderer xRndr;
+    private static final long FRAME_INTERVAL_SLACK = 1000000;
 
-    final YRenderer yRndr;
+    /**
+     * Horizontal and Vertical position controllers, replaced by the ones of a layout
+     * prepared off the UI thread when shown asynchronously
+     */
+    XRenderer xRndr;
+
+    YRenderer yRndr;
 
     /**
      * Style applied to chart
@@ -64,9 +73,12 @@ public abstract class ChartView extends RelativeLayout {
     final Style style;
 
     /**
-     * Chart data to be displayed
+     * Chart data to be displayed. The list is replaced instead of being modified
+     * once published, so it can be read from any thread without locking.
+     * It's only replaced from the UI thread. Sets themselves are modified in place,
+     * also only from the UI thread, other threads post their values instead.
      */
-    ArrayList<ChartSet> data;
+    volatile ArrayList<ChartSet> data;
 
     /**
      * Chart orientation
@@ -92,6 +104,12 @@ public abstract class ChartView extends RelativeLayout {
 
     private ArrayList<Float> mThresholdEndValues;
 
+    /**
+     * Threshold line screen coordinates, start and end interleaved,
+     * parsed from values in every layout
+     */
+    private float[] mThresholdPos;
+
     /**
      * Threshold line label
      */
@@ -103,7 +121,23 @@ public abstract class ChartView extends RelativeLayout {
     /**
      * Chart data to be displayed
      */
-    private ArrayList<ArrayList<Region>> mRegions;
+    private EntryRegions mRegions;
+
+    /**
+     * Display coordinates before and after a data update, reused across updates
+     */
+    private float[] mOldCoords;
+
+    private float[] mNewCoords;
+
+    /**
+     * Values and display coordinates of entries being digested, reused across digests
+     */
+    private float[] mDigestValues;
+
+    private float[] mDigestX;
+
+    private float[] mDigestY;
 
     /**
      * Gestures detector to trigger listeners callback
@@ -115,6 +149,25 @@ public abstract class ChartView extends RelativeLayout {
      */
     private OnEntryClickListener mEntryListener;
 
+    /**
+     * Listener callback with rendering metrics, nothing is measured if null
+     */
+    private OnChartMetricsListener mMetricsListener;
+
+    /**
+     * Entries drawn and culled in the current frame
+     */
+    private int mEntriesDrawn;
+
+    private int mEntriesCulled;
+
+    /**
+     * Animation updates and frames drawn since animation start
+     */
+    private int mAnimationUpdates;
+
+    private int mAnimationFrames;
+
     /**
      * Listener callback on chart click, no entry intersection
      */
@@ -130,6 +183,11 @@ public abstract class ChartView extends RelativeLayout {
      */
     private boolean mIsDrawing;
 
+    /**
+     * Whether shadows can be drawn with the current layer type
+     */
+    private boolean mShadowsEnabled;
+
     /**
      * Chart animation
      */
@@ -142,81 +200,109 @@ public abstract class ChartView extends RelativeLayout {
      * this will define the chart regions to handle by onTouchEvent
      */
     private final OnPreDrawListener drawListener = new OnPreDrawListener() {
-        @SuppressLint("NewApi")
         @Override
         public boolean onPreDraw() {
 
             ChartView.this.getViewTreeObserver().removeOnPreDrawListener(this);
 
-            // Generate Paint object with style attributes
-            style.init();
-
-            // Initiate axis labels with data and style
-            yRndr.init(data, style);
-            xRndr.init(data, style);
-
-            // Set the positioning of the whole chart's frame
-            mChartLeft = getPaddingLeft();
-            mChartTop = getPaddingTop() + style.fontMaxHeight / 2;
-            mChartRight = getMeasuredWidth() - getPaddingRight();
-            mChartBottom = getMeasuredHeight() - getPaddingBottom();
-
-            // Measure space and set the positioning of the inner border.
-            // Inner borders will be chart's frame excluding the space needed by axis.
-            // They define the actual area where chart's content will be drawn.
-            yRndr.measure(mChartLeft, mChartTop, mChartRight, mChartBottom);
-            xRndr.measure(mChartLeft, mChartTop, mChartRight, mChartBottom);
-
-            // Negotiate chart inner boundaries.
-            // Both renderers may require different space to draw axis stuff.
-            final float[] bounds = negotiateInnerChartBounds(yRndr.getInnerChartBounds(),
-                    xRndr.getInnerChartBounds());
-            yRndr.setInnerChartBounds(bounds[0], bounds[1], bounds[2], bounds[3]);
-            xRndr.setInnerChartBounds(bounds[0], bounds[1], bounds[2], bounds[3]);
-
-            // Dispose the various axis elements in their positions
-            yRndr.dispose();
-            xRndr.dispose();
-
-            // Parse threshold screen coordinates
-            if (!mThresholdStartValues.isEmpty()) {
-                for (int i = 0; i < mThresholdStartValues.size(); i++) {
-                    mThresholdStartValues.set(i, yRndr.parsePos(0, mThresholdStartValues.get(i)));
-                    mThresholdEndValues.set(i, yRndr.parsePos(0, mThresholdEndValues.get(i)));
-                }
+            layoutChart();
+
+            // Prepare the animation retrieving the first dump of coordinates to be used
+            if (mAnim != null) data = mAnim.prepareEnterAnimation(ChartView.this);
+
+            // Only fallback to software rendering if some feature in use requires it
+            applyRenderMode();
+
+            return mReadyToDraw = true;
+        }
+    };
+
+    /**
+     * Executed only before the chart is drawn for the first time, when shown asynchronously.
+     * The chart frame is measured by then, so a snapshot of the chart is laid out in
+     * background and the chart is only drawn once it's swapped in.
+     */
+    private final OnPreDrawListener asyncDrawListener = new OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+
+            ChartView.this.getViewTreeObserver().removeOnPreDrawListener(this);
+            layoutAsync();
+            return true;
+        }
+    };
+
+    /**
+     * Executor where the chart is laid out when shown asynchronously
+     */
+    private Executor mExecutor;
+
+    /**
+     * Identifies the on going asynchronous layout, null if none
+     */
+    private Object mLayoutToken;
+
+    /**
+     * Values posted from any thread and not yet applied, indexed by set, null where
+     * no update is pending. Guarded by mPendingLock.
+     */
+    private float[][] mPendingValues;
+
+    private boolean mIsUpdatePosted;
+
+    private final Object mPendingLock = new Object();
+
+    /**
+     * Applies posted values on the UI thread, all updates posted between two frames at once
+     */
+    private final Runnable mPostedUpdate = new Runnable() {
+        @Override
+        public void run() {
+
+            // Data can't be touched while laid out in background or while animating
+            if (mLayoutToken != null || (mAnim != null && mAnim.isPlaying())) {
+                postOnAnimation(this);
+                return;
             }
 
-            // Process data to define screen coordinates
-            digestData();
-
-            // In case Views extending ChartView need to pre process data before the onDraw
-            onPreDrawChart(data);
-
-            // Define entries regions
-            if (mRegions.isEmpty()) {
-                int dataSize = data.size();
-                int setSize;
-                mRegions = new ArrayList<>(dataSize);
-                ArrayList<Region> regionSet;
-                for (int i = 0; i < dataSize; i++) {
-                    setSize = data.get(0).size();
-                    regionSet = new ArrayList<>(setSize);
-                    for (int j = 0; j < setSize; j++)
-                        regionSet.add(new Region());
-                    mRegions.add(regionSet);
+            float[] values;
+            synchronized (mPendingLock) {
+                mIsUpdatePosted = false;
+                for (int i = 0; i < mPendingValues.length; i++) {
+                    if (mPendingValues[i] == null) continue;
+                    values = mPendingValues[i];
+                    mPendingValues[i] = null;
+                    data.get(i).updateValues(values);
                 }
             }
-            defineRegions(mRegions, data);
 
-            // Prepare the animation retrieving the first dump of coordinates to be used
-            if (mAnim != null) data = mAnim.prepareEnterAnimation(ChartView.this);
+            // Values are laid out once the chart is shown
+            if (mReadyToDraw) notifyDataUpdate();
+        }
+    };
 
-            if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.HONEYCOMB)
-                ChartView.this.setLayerType(LAYER_TYPE_SOFTWARE, null);
+    /**
+     * Minimum time between two frames, 0 if not limited
+     */
+    private long mMinFrameInterval;
 
-            return mReadyToDraw = true;
+    private long mLastFrameTime;
+
+    private boolean mIsFramePosted;
+
+    /**
+     * Redraws the chart at most once per vsync, and no sooner than the maximum
+     * refresh rate allows
+     */
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+
+            mIsFramePosted = false;
+            drawFrame(frameTimeNanos);
         }
     };
+
     private ChartAnimationListener mAnimListener;
     /**
      * Tooltip
@@ -252,17 +338,37 @@ public abstract class ChartView extends RelativeLayout {
         mReadyToDraw = false;
         mThresholdStartValues = new ArrayList<>();
         mThresholdEndValues = new ArrayList<>();
+        mThresholdPos = new float[0];
         mThresholdStartLabels = new ArrayList<>();
         mThresholdEndLabels = new ArrayList<>();
         mIsDrawing = false;
+        mLayoutToken = null;
+        synchronized (mPendingLock) {
+            mPendingValues = new float[0][];
+        }
         data = new ArrayList<>();
-        mRegions = new ArrayList<>();
+        mRegions = new EntryRegions();
+        mOldCoords = new float[0];
+        mNewCoords = new float[0];
+        mDigestValues = new float[0];
+        mDigestX = new float[0];
+        mDigestY = new float[0];
         mAnimListener = new ChartAnimationListener() {
             @Override
             public boolean onAnimationUpdate(ArrayList<ChartSet> data) {
+                if (mMetricsListener != null) {
+                    mAnimationUpdates++;
+                    if (!mAnim.isPlaying()) {
+                        mMetricsListener.onAnimationEnd(mAnimationUpdates, mAnimationFrames);
+                        mAnimationUpdates = 0;
+                        mAnimationFrames = 0;
+                    }
+                }
                 if (!mIsDrawing) {
-                    addData(data);
-                    postInvalidate();
+                    // Animations usually work on the chart's own list, which needs no copy
+                    if (data != ChartView.this.data) addData(data);
+                    // Animator ticks run within the frame, posting would only draw on the next one
+                    drawFrame(System.nanoTime());
                     return true;
                 }
                 return false;
@@ -285,6 +391,8 @@ public abstract class ChartView extends RelativeLayout {
         super.onDetachedFromWindow();
 
         style.clean();
+        Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+        mIsFramePosted = false;
     }
 
     @Override
@@ -326,56 +434,384 @@ public abstract class ChartView extends RelativeLayout {
         mIsDrawing = true;
         super.onDraw(canvas);
 
-        if (mReadyToDraw) {
-            //long time = System.currentTimeMillis();
+        // Same data along the whole frame, even if replaced meanwhile
+        final ArrayList<ChartSet> data = this.data;
 
+        if (mReadyToDraw) {
             // Draw grid
             if (style.hasVerticalGrid()) drawVerticalGrid(canvas);
             if (style.hasHorizontalGrid()) drawHorizontalGrid(canvas);
 
             // Draw threshold
-            if (!mThresholdStartValues.isEmpty())
-                for (int i = 0; i < mThresholdStartValues.size(); i++)
-                    drawThreshold(canvas, getInnerChartLeft(), mThresholdStartValues.get(i),
-                            getInnerChartRight(), mThresholdEndValues.get(i), style.valueThresPaint);
+            final float[] thresholdPos = mThresholdPos;
+            for (int i = 0; i < thresholdPos.length; i += 2)
+                drawThreshold(canvas, getInnerChartLeft(), thresholdPos[i],
+                        getInnerChartRight(), thresholdPos[i + 1], style.valueThresPaint);
             if (!mThresholdStartLabels.isEmpty())
                 for (int i = 0; i < mThresholdStartLabels.size(); i++)
-                    drawThreshold(canvas, data.get(0).getEntry(mThresholdStartLabels.get(i)).getX(),
-                            getInnerChartTop(), data.get(0).getEntry(mThresholdEndLabels.get(i)).getX(),
+                    drawThreshold(canvas, data.get(0).getX(mThresholdStartLabels.get(i)),
+                            getInnerChartTop(), data.get(0).getX(mThresholdEndLabels.get(i)),
                             getInnerChartBottom(), style.labelThresPaint);
 
             // Draw data
-            if (!data.isEmpty()) onDrawChart(canvas, data);
+            if (!data.isEmpty()) {
+                final long time = (mMetricsListener != null) ? System.nanoTime() : 0;
+                mEntriesDrawn = 0;
+                mEntriesCulled = 0;
+                onDrawChart(canvas, data);
+                if (mMetricsListener != null) {
+                    if (mAnim != null && mAnim.isPlaying()) mAnimationFrames++;
+                    mMetricsListener.onDraw(System.nanoTime() - time, mEntriesDrawn,
+                            mEntriesCulled);
+                }
+            }
 
             // Draw Axis Y
             yRndr.draw(canvas);
 
             // Draw axis X
             xRndr.draw(canvas);
-
-            //System.out.println("Time drawing "+(System.currentTimeMillis() - time));
         }
 
         mIsDrawing = false;
     }
 
 
+    /**
+     * Defines borders, positions axis and processes data into screen coordinates and regions.
+     */
+    private void layoutChart() {
+
+        final boolean isMeasuring = mMetricsListener != null;
+        long time = isMeasuring ? System.nanoTime() : 0;
+        long styleTime = 0;
+        long renderersTime = 0;
+        long digestTime = 0;
+
+        // Generate Paint object with style attributes
+        style.init();
+        if (isMeasuring) {
+            styleTime = System.nanoTime() - time;
+            time += styleTime;
+        }
+
+        // Set the positioning of the whole chart's frame
+        mChartLeft = getPaddingLeft();
+        mChartTop = getPaddingTop() + style.fontMaxHeight / 2;
+        mChartRight = getMeasuredWidth() - getPaddingRight();
+        mChartBottom = getMeasuredHeight() - getPaddingBottom();
+
+        layoutRenderers(data, style, xRndr, yRndr, mChartLeft, mChartTop, mChartRight,
+                mChartBottom);
+        if (isMeasuring) {
+            renderersTime = System.nanoTime() - time;
+            time += renderersTime;
+        }
+
+        // Parse threshold screen coordinates, values are kept as borders may change
+        mThresholdPos = parseThresholds(yRndr, getThresholdValues());
+
+        // Process data to define screen coordinates
+        digestData();
+
+        // In case Views extending ChartView need to pre process data before the onDraw
+        onPreDrawChart(data);
+        if (isMeasuring) {
+            digestTime = System.nanoTime() - time;
+            time += digestTime;
+        }
+
+        // Define entries regions
+        mRegions.reset(data.size(), data.get(0).size());
+        defineRegions(mRegions, data);
+        if (isMeasuring)
+            mMetricsListener.onLayout(styleTime, renderersTime, digestTime,
+                    System.nanoTime() - time);
+    }
+
+
+    /**
+     * Initiates axis labels with data and style, then measures and disposes axis within
+     * the chart's frame. Only the given objects are touched.
+     *
+     * @param data   Chart data
+     * @param style  Chart style
+     * @param xRndr  Horizontal renderer to lay out
+     * @param yRndr  Vertical renderer to lay out
+     * @param left   Left position of chart's frame
+     * @param top    Top position of chart's frame
+     * @param right  Right position of chart's frame
+     * @param bottom Bottom position of chart's frame
+     */
+    private void layoutRenderers(ArrayList<ChartSet> data, Style style, XRenderer xRndr,
+                                 YRenderer yRndr, int left, int top, int right, int bottom) {
+
+        // Initiate axis labels with data and style
+        yRndr.init(data, style);
+        xRndr.init(data, style);
+
+        // Measure space and set the positioning of the inner border.
+        // Inner borders will be chart's frame excluding the space needed by axis.
+        // They define the actual area where chart's content will be drawn.
+        yRndr.measure(left, top, right, bottom);
+        xRndr.measure(left, top, right, bottom);
+
+        // Negotiate chart inner boundaries.
+        // Both renderers may require different space to draw axis stuff.
+        final float[] bounds = negotiateInnerChartBounds(yRndr.getInnerChartBounds(),
+                xRndr.getInnerChartBounds());
+        yRndr.setInnerChartBounds(bounds[0], bounds[1], bounds[2], bounds[3]);
+        xRndr.setInnerChartBounds(bounds[0], bounds[1], bounds[2], bounds[3]);
+
+        // Dispose the various axis elements in their positions
+        yRndr.dispose();
+        xRndr.dispose();
+    }
+
+
+    /**
+     * @return Threshold line values, start and end interleaved.
+     */
+    private float[] getThresholdValues() {
+
+        final float[] result = new float[mThresholdStartValues.size() * 2];
+        for (int i = 0; i < mThresholdStartValues.size(); i++) {
+            result[i * 2] = mThresholdStartValues.get(i);
+            result[i * 2 + 1] = mThresholdEndValues.get(i);
+        }
+        return result;
+    }
+
+
+    /**
+     * Parses threshold line values into screen coordinates.
+     *
+     * @param yRndr  Vertical renderer, already laid out
+     * @param values Threshold line values
+     * @return Screen coordinates, at the same indexes as values.
+     */
+    private static float[] parseThresholds(YRenderer yRndr, float[] values) {
+
+        final float[] result = new float[values.length];
+        for (int i = 0; i < values.length; i++)
+            result[i] = yRndr.parsePos(0, values[i]);
+        return result;
+    }
+
+
+    /**
+     * Takes a snapshot of the chart data and lays it out in the executor, with axis
+     * renderers and style of its own. Once done, the layout is swapped in and the chart
+     * drawn on the UI thread, unless the chart was shown again or reset meanwhile.
+     * Data changed meanwhile is laid out again from a new snapshot.
+     */
+    private void layoutAsync() {
+
+        final ArrayList<ChartSet> source = data;
+        final ArrayList<ChartSet> snapshot = new ArrayList<>(source.size());
+        for (ChartSet set : source) {
+            snapshot.add(set.snapshot());
+            set.clearDirty();
+        }
+        final ChartLayout layout = new ChartLayout(snapshot, new XRenderer(xRndr),
+                new YRenderer(yRndr), new Style(style), getThresholdValues(),
+                getPaddingLeft(), getPaddingTop(), getMeasuredWidth() - getPaddingRight(),
+                getMeasuredHeight() - getPaddingBottom());
+
+        final Object token = mLayoutToken = new Object();
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+
+                prepareLayout(layout);
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+
+                        if (token != mLayoutToken) return;
+                        mLayoutToken = null;
+                        if (source != data || hasChanged(snapshot)) {
+                            layoutAsync();
+                            return;
+                        }
+                        applyLayout(layout);
+
+                        // Prepare the animation retrieving the first dump of coordinates
+                        if (mAnim != null) data = mAnim.prepareEnterAnimation(ChartView.this);
+
+                        applyRenderMode();
+                        mReadyToDraw = true;
+                        invalidate();
+                    }
+                });
+            }
+        });
+    }
+
+
+    /**
+     * Lays out a snapshot of the chart the same way {@link #layoutChart()} lays out
+     * the chart, touching nothing but the given layout. Runs in the executor.
+     *
+     * @param layout Layout to be prepared
+     */
+    private void prepareLayout(ChartLayout layout) {
+
+        long time = System.nanoTime();
+
+        // Paints of its own, the chart's ones may be drawing meanwhile
+        layout.style.init();
+        layout.styleTime = System.nanoTime() - time;
+        time += layout.styleTime;
+
+        layout.chartTop += layout.style.fontMaxHeight / 2;
+        layoutRenderers(layout.data, layout.style, layout.xRndr, layout.yRndr,
+                layout.chartLeft, layout.chartTop, layout.chartRight, layout.chartBottom);
+        layout.renderersTime = System.nanoTime() - time;
+        time += layout.renderersTime;
+
+        layout.thresholdPos = parseThresholds(layout.yRndr, layout.thresholdValues);
+
+        // Process data to define screen coordinates
+        final int nSets = layout.data.size();
+        final int nEntries = layout.data.get(0).size();
+        final float[] values = new float[nEntries];
+        layout.x = new float[nSets][nEntries];
+        layout.y = new float[nSets][nEntries];
+        ChartSet set;
+        for (int i = 0; i < nSets; i++) {
+            set = layout.data.get(i);
+            set.getValues(0, nEntries, values);
+            layout.xRndr.parsePos(values, 0, nEntries, layout.x[i]);
+            layout.yRndr.parsePos(values, 0, nEntries, layout.y[i]);
+            set.setCoordinates(0, nEntries, layout.x[i], layout.y[i]);
+        }
+        layout.digestTime = System.nanoTime() - time;
+        time += layout.digestTime;
+
+        // Define entries regions, along with anything else the chart is drawn from
+        layout.regions.reset(nSets, nEntries);
+        layout.chartState = prepareChart(layout);
+        layout.regionsTime = System.nanoTime() - time;
+    }
+
+
+    /**
+     * Swaps in a layout prepared in background. Axis renderers, display coordinates,
+     * regions and the chart's own state are all replaced before the next frame.
+     *
+     * @param layout Layout of a snapshot of the current data
+     */
+    private void applyLayout(ChartLayout layout) {
+
+        xRndr = layout.xRndr;
+        yRndr = layout.yRndr;
+        mChartLeft = layout.chartLeft;
+        mChartTop = layout.chartTop;
+        mChartRight = layout.chartRight;
+        mChartBottom = layout.chartBottom;
+        mThresholdPos = layout.thresholdPos;
+
+        final int nEntries = data.get(0).size();
+        for (int i = 0; i < data.size(); i++)
+            data.get(i).setCoordinates(0, nEntries, layout.x[i], layout.y[i]);
+        mRegions = layout.regions;
+        applyPreparedChart(layout.chartState);
+
+        if (mMetricsListener != null)
+            mMetricsListener.onLayout(layout.styleTime, layout.renderersTime,
+                    layout.digestTime, layout.regionsTime);
+    }
+
+
+    /**
+     * Whether data changed since the given snapshot of it was taken, either its values
+     * or which sets are visible.
+     *
+     * @param snapshot Snapshot of the current data
+     * @return True if any set changed, False otherwise.
+     */
+    private boolean hasChanged(ArrayList<ChartSet> snapshot) {
+
+        ChartSet set;
+        for (int i = 0; i < data.size(); i++) {
+            set = data.get(i);
+            if (set.isDirty() || set.size() != snapshot.get(i).size()
+                    || set.isVisible() != snapshot.get(i).isVisible()) return true;
+        }
+        return false;
+    }
+
+
     /**
      * Convert {@link ChartEntry} values into screen points.
      */
-    private void digestData() {
+    void digestData() {
 
         int nEntries = data.get(0).size();
         for (ChartSet set : data) {
-            for (int i = 0; i < nEntries; i++) {
-                set.getEntry(i)
-                        .setCoordinates(xRndr.parsePos(i, set.getValue(i)),
-                                yRndr.parsePos(i, set.getValue(i)));
-            }
+            digestData(set, 0, nEntries);
+            set.clearDirty();
         }
     }
 
 
+    /**
+     * Convert a range of {@link ChartEntry} values of a set into screen points.
+     *
+     * @param set   {@link ChartSet} to be converted
+     * @param begin Index of the first entry to convert
+     * @param end   Index after the last entry to convert
+     */
+    private void digestData(ChartSet set, int begin, int end) {
+
+        if (mDigestValues.length < end) {
+            mDigestValues = new float[set.size()];
+            mDigestX = new float[set.size()];
+            mDigestY = new float[set.size()];
+        }
+        set.getValues(begin, end, mDigestValues);
+        xRndr.parsePos(mDigestValues, begin, end, mDigestX);
+        yRndr.parsePos(mDigestValues, begin, end, mDigestY);
+        set.setCoordinates(begin, end, mDigestX, mDigestY);
+    }
+
+
+    /**
+     * Defines the layer type used to draw the chart based on {@link RenderMode}.
+     * Shadows are the only feature which hardware acceleration doesn't support
+     * before Android P, all other effects (dashes, gradients) are drawn by the GPU.
+     */
+    private void applyRenderMode() {
+
+        final boolean hardwareShadows = Build.VERSION.SDK_INT >= Build.VERSION_CODES.P;
+
+        final boolean software;
+        if (style.renderMode == RenderMode.SOFTWARE) software = true;
+        else if (style.renderMode == RenderMode.HARDWARE) software = false;
+        else software = !hardwareShadows && hasShadow();
+
+        if (software) setLayerType(LAYER_TYPE_SOFTWARE, null);
+        else if (getLayerType() == LAYER_TYPE_SOFTWARE) setLayerType(LAYER_TYPE_NONE, null);
+
+        // In hardware mode shadows are simply not drawn when not supported
+        mShadowsEnabled = software || hardwareShadows || !isHardwareAccelerated();
+    }
+
+
+    /**
+     * Checks whether any of the chart entries has a shadow defined.
+     *
+     * @return True if at least one entry has shadow, False otherwise.
+     */
+    private boolean hasShadow() {
+
+        for (ChartSet set : data)
+            if (set.hasEntriesShadow()) return true;
+        return false;
+    }
+
+
     /**
      * (Optional) To be overridden in case the view needs to execute some code before
      * starting the drawing.
@@ -386,6 +822,120 @@ public abstract class ChartView extends RelativeLayout {
     }
 
 
+    /**
+     * Index of the first entry to be drawn, being the first entry inside the inner chart
+     * area preceded by one neighbour so lines reaching the area remain continuous.
+     * Entries are expected to be sorted along the labels axis, which isn't the case while
+     * animating, therefore no entry is culled during animations.
+     *
+     * @param set   {@link ChartSet} to be culled
+     * @param begin Index of the first entry to consider
+     * @param end   Index after the last entry to consider
+     * @return Index of the first entry to be drawn.
+     */
+    int getFirstVisibleIndex(ChartSet set, int begin, int end) {
+
+        if (end - begin < 3 || (mAnim != null && mAnim.isPlaying())) return begin;
+
+        final boolean ascending = isAscending(set, begin, end);
+        final float bound = ascending ? getVisibleLower() : -getVisibleUpper();
+        return Math.max(begin, searchEntry(set, begin, end, ascending, bound, false) - 1);
+    }
+
+
+    /**
+     * Index after the last entry to be drawn, being the last entry inside the inner chart
+     * area followed by one neighbour so lines leaving the area remain continuous.
+     * No entry is culled during animations.
+     *
+     * @param set   {@link ChartSet} to be culled
+     * @param begin Index of the first entry to consider
+     * @param end   Index after the last entry to consider
+     * @return Index after the last entry to be drawn.
+     */
+    int getLastVisibleIndex(ChartSet set, int begin, int end) {
+
+        if (end - begin < 3 || (mAnim != null && mAnim.isPlaying())) return end;
+
+        final boolean ascending = isAscending(set, begin, end);
+        final float bound = ascending ? getVisibleUpper() : -getVisibleLower();
+        return Math.min(end, searchEntry(set, begin, end, ascending, bound, true) + 1);
+    }
+
+
+    /**
+     * @return True if an animation is currently playing, False otherwise.
+     */
+    boolean isAnimating() {
+
+        return mAnim != null && mAnim.isPlaying();
+    }
+
+
+    /**
+     * Accounts entries drawn in the current frame, reported to the metrics listener.
+     *
+     * @param drawn Number of entries drawn
+     * @param total Number of entries that could have been drawn
+     */
+    void countDrawnEntries(int drawn, int total) {
+
+        mEntriesDrawn += drawn;
+        mEntriesCulled += total - drawn;
+    }
+
+
+    /**
+     * Binary search over the entries position along the labels axis, normalized to be ascending.
+     *
+     * @param ascending True if entries are positioned in ascending order
+     * @param bound     Normalized position to search for
+     * @param inclusive True to find the first entry after bound,
+     *                  False to find the first entry at or after bound
+     * @return Index of the entry found, or end if none.
+     */
+    private int searchEntry(ChartSet set, int begin, int end, boolean ascending, float bound,
+                            boolean inclusive) {
+
+        int low = begin;
+        int high = end;
+        int mid;
+        float pos;
+        while (low < high) {
+            mid = (low + high) >>> 1;
+            pos = ascending ? getLabelsAxisPos(set, mid) : -getLabelsAxisPos(set, mid);
+            if (pos < bound || (inclusive && pos == bound)) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+
+    private boolean isAscending(ChartSet set, int begin, int end) {
+
+        return getLabelsAxisPos(set, end - 1) >= getLabelsAxisPos(set, begin);
+    }
+
+
+    private float getLabelsAxisPos(ChartSet set, int index) {
+
+        if (mOrientation == Orientation.VERTICAL) return set.getX(index);
+        return set.getY(index);
+    }
+
+
+    private float getVisibleLower() {
+
+        return mOrientation == Orientation.VERTICAL ? getInnerChartLeft() : getInnerChartTop();
+    }
+
+
+    private float getVisibleUpper() {
+
+        return mOrientation == Orientation.VERTICAL ? getInnerChartRight() : getInnerChartBottom();
+    }
+
+
     /**
      * (Optional) To be overridden in order for each chart to define its own clickable regions.
      * This way, classes extending ChartView will only define their clickable regions.
@@ -397,7 +947,49 @@ public abstract class ChartView extends RelativeLayout {
      * @param data    {@link ArrayList} of {@link com.aiqfome.aiqchart.model.ChartSet}
      *                to use while defining each region of a {@link com.aiqfome.aiqchart.view.ChartView}
      */
-    void defineRegions(ArrayList<ArrayList<Region>> regions, ArrayList<ChartSet> data) {
+    void defineRegions(EntryRegions regions, ArrayList<ChartSet> data) {
+    }
+
+
+    /**
+     * (Optional) To be overridden in case the chart is able to redefine only the regions
+     * of the changed entries, given by {@link ChartSet#getDirtyBegin()} and
+     * {@link ChartSet#getDirtyEnd()} of each set flagged as dirty.
+     * By default all regions are defined again.
+     *
+     * @param regions Regions previously defined
+     * @param data    {@link ArrayList} of {@link com.aiqfome.aiqchart.model.ChartSet}
+     *                containing some sets with changed entries
+     */
+    void updateRegions(EntryRegions regions, ArrayList<ChartSet> data) {
+
+        defineRegions(regions, data);
+    }
+
+
+    /**
+     * (Optional) To be overridden in order for the chart to define its regions in background,
+     * along with any other state it's drawn from besides display coordinates. Data is a
+     * snapshot already laid out by the layout's renderers. The chart keeps being drawn
+     * meanwhile, so nothing but the layout may be written, and nothing of the chart
+     * read besides its configuration.
+     *
+     * @param layout Layout of a snapshot of the data, whose regions are to be defined
+     * @return State applied by {@link #applyPreparedChart(Object)}, null if none.
+     */
+    Object prepareChart(ChartLayout layout) {
+
+        return null;
+    }
+
+
+    /**
+     * (Optional) To be overridden in order to apply on the UI thread the state returned by
+     * {@link #prepareChart(ChartLayout)}, once its layout is swapped in.
+     *
+     * @param state State prepared along with the layout
+     */
+    void applyPreparedChart(Object state) {
     }
 
 
@@ -413,6 +1005,8 @@ public abstract class ChartView extends RelativeLayout {
 
     /**
      * Set new data to the chart and invalidates the view to be then drawn.
+     * Must be called from the UI thread, values can be updated from other threads
+     * through {@link #postValues(int, float[])}.
      *
      * @param set {@link ChartSet} object.
      */
@@ -423,18 +1017,22 @@ public abstract class ChartView extends RelativeLayout {
         if (!data.isEmpty() && set.size() != data.get(0).size())
             throw new IllegalArgumentException("The number of entries between sets doesn't match.");
 
-        data.add(set);
+        final ArrayList<ChartSet> result = new ArrayList<>(data.size() + 1);
+        result.addAll(data);
+        result.add(set);
+        data = result;
     }
 
 
     /**
-     * Add full chart data.
+     * Add full chart data. The list is copied, so the caller can keep modifying its own.
+     * Must be called from the UI thread.
      *
      * @param data An array of {@link ChartSet}
      */
     public void addData(ArrayList<ChartSet> data) {
 
-        this.data = data;
+        this.data = new ArrayList<>(checkNotNull(data));
     }
 
 
@@ -443,6 +1041,9 @@ public abstract class ChartView extends RelativeLayout {
      */
     private void display() {
 
+        // Any layout on going in background is outdated
+        mLayoutToken = null;
+        this.getViewTreeObserver().removeOnPreDrawListener(asyncDrawListener);
         this.getViewTreeObserver().addOnPreDrawListener(drawListener);
         postInvalidate();
     }
@@ -484,6 +1085,41 @@ public abstract class ChartView extends RelativeLayout {
     }
 
 
+    /**
+     * Show chart data, laying it out in the given executor instead of the UI thread.
+     * Once the chart is measured, a snapshot of its data is laid out with axis renderers
+     * and style of its own: labels, borders, display coordinates and regions are all
+     * prepared in background, then swapped in on the UI thread before the chart is drawn.
+     * Data changed meanwhile is laid out again from a new snapshot, while the chart's
+     * configuration, such as axis borders or style, must not change until then.
+     *
+     * @param executor Executor where the chart is laid out
+     */
+    public void showAsync(@NonNull Executor executor) {
+
+        mExecutor = checkNotNull(executor);
+        for (ChartSet set : data)
+            set.setVisible(true);
+        this.getViewTreeObserver().removeOnPreDrawListener(drawListener);
+        this.getViewTreeObserver().addOnPreDrawListener(asyncDrawListener);
+        postInvalidate();
+    }
+
+
+    /**
+     * Starts the animation given as parameter once data is laid out in the given executor.
+     *
+     * @param anim     Animation used while showing and updating sets
+     * @param executor Executor where the chart is laid out
+     */
+    public void showAsync(@NonNull Animation anim, @NonNull Executor executor) {
+
+        mAnim = checkNotNull(anim);
+        mAnim.setAnimationListener(mAnimListener);
+        showAsync(executor);
+    }
+
+
     /**
      * Dismiss chart data.
      */
@@ -501,6 +1137,8 @@ public abstract class ChartView extends RelativeLayout {
     public void dismiss(int setIndex) {
 
         data.get(checkPositionIndex(setIndex, data.size())).setVisible(false);
+        // Regions may depend on which sets are visible
+        if (mReadyToDraw) defineRegions(mRegions, data);
         invalidate();
     }
 
@@ -521,7 +1159,7 @@ public abstract class ChartView extends RelativeLayout {
             public void run() {
 
                 if (endAction != null) endAction.run();
-                data.clear();
+                data = new ArrayList<>();
                 invalidate();
             }
         });
@@ -565,6 +1203,37 @@ public abstract class ChartView extends RelativeLayout {
     }
 
 
+    /**
+     * Update set values from any thread. Values are applied on the UI thread, before the
+     * next frame, followed by a single {@link #notifyDataUpdate()} for all values posted
+     * meanwhile. If a set gets more than one update only the last one is applied.
+     * Updates posted while the chart animates are applied once the animation finishes.
+     *
+     * @param setIndex Index of set to be updated
+     * @param values   Array of new values. Array length must match current data
+     */
+    public void postValues(int setIndex, @NonNull float[] values) {
+
+        // Validated here, failing on the caller's thread rather than later on the UI thread
+        final ArrayList<ChartSet> data = this.data;
+        checkPositionIndex(setIndex, data.size() - 1);
+        if (checkNotNull(values).length != data.get(setIndex).size())
+            throw new IllegalArgumentException(
+                    "New set values given doesn't match previous number of entries.");
+
+        // Caller may reuse its array
+        final float[] copy = values.clone();
+        synchronized (mPendingLock) {
+            if (mPendingValues.length <= setIndex)
+                mPendingValues = Arrays.copyOf(mPendingValues, data.size());
+            mPendingValues[setIndex] = copy;
+            if (mIsUpdatePosted) return;
+            mIsUpdatePosted = true;
+        }
+        postOnAnimation(mPostedUpdate);
+    }
+
+
     /**
      * Notify {@link ChartView} about updated values. {@link ChartView} will be validated.
      */
@@ -573,19 +1242,35 @@ public abstract class ChartView extends RelativeLayout {
         // Ignore update if chart is not even ready to draw or if it is still animating
         if (mAnim != null && !mAnim.isPlaying() && mReadyToDraw || mAnim == null && mReadyToDraw) {
 
-            ArrayList<float[][]> oldCoords = new ArrayList<>(data.size());
-            ArrayList<float[][]> newCoords = new ArrayList<>(data.size());
-
-            for (ChartSet set : data)
-                oldCoords.add(set.getScreenPoints());
+            final int size = data.size() * data.get(0).size() * 2;
+            if (mOldCoords.length < size) {
+                mOldCoords = new float[size];
+                mNewCoords = new float[size];
+            }
+            getScreenPoints(mOldCoords);
 
-            digestData();
+            boolean isDirty = false;
             for (ChartSet set : data)
-                newCoords.add(set.getScreenPoints());
+                isDirty |= set.isDirty();
+
+            if (isDirty) {
+                // Only changed entries need to be processed again, sets track changes made
+                // through updateValues as well as directly through their entries
+                for (ChartSet set : data)
+                    if (set.isDirty()) digestData(set, set.getDirtyBegin(), set.getDirtyEnd());
+                updateRegions(mRegions, data);
+                for (ChartSet set : data)
+                    set.clearDirty();
+
+            } else {
+                // Entries changed without the set knowing, such as its list of entries
+                digestData();
+                defineRegions(mRegions, data);
+            }
+            getScreenPoints(mNewCoords);
 
-            defineRegions(mRegions, data);
-            if (mAnim != null) mAnim.prepareUpdateAnimation(oldCoords, newCoords);
-            else invalidate();
+            if (mAnim != null) mAnim.prepareUpdateAnimation(mOldCoords, mNewCoords);
+            else requestFrame();
 
         } else {
             Log.w(TAG, "Unexpected data update notification. "
@@ -595,6 +1280,110 @@ public abstract class ChartView extends RelativeLayout {
     }
 
 
+    /**
+     * Copies the display coordinates of all entries into a flat buffer,
+     * indexed by (set * number of entries + entry) * 2.
+     *
+     * @param dest Buffer big enough to hold all coordinates
+     */
+    private void getScreenPoints(float[] dest) {
+
+        final int nEntries = data.get(0).size();
+        ChartSet set;
+        int k;
+        for (int i = 0; i < data.size(); i++) {
+            set = data.get(i);
+            for (int j = 0; j < nEntries; j++) {
+                k = (i * nEntries + j) * 2;
+                dest[k] = set.getX(j);
+                dest[k + 1] = set.getY(j);
+            }
+        }
+    }
+
+
+    /**
+     * @return True if the chart is displayed and not animating, so entries can be streamed.
+     */
+    boolean canStream() {
+
+        return mReadyToDraw && !isAnimating();
+    }
+
+
+    /**
+     * Notify {@link ChartView} that every set dropped its oldest entry and appended a new one.
+     * Only the new entries are converted into screen points, unless any of them falls
+     * outside the axis borders, in which case the whole chart is laid out again.
+     */
+    void notifyDataStreamed() {
+
+        if (!canStream()) {
+            Log.w(TAG, "Unexpected data stream notification. "
+                    + "Chart is still not displayed or still displaying.");
+            return;
+        }
+
+        final AxisRenderer valuesRndr = (mOrientation == Orientation.VERTICAL) ? yRndr : xRndr;
+        final int last = data.get(0).size() - 1;
+
+        boolean fits = true;
+        for (ChartSet set : data)
+            fits &= set.getValue(last) >= valuesRndr.getBorderMinimumValue()
+                    && set.getValue(last) <= valuesRndr.getBorderMaximumValue();
+
+        if (fits) {
+            xRndr.updateLabels(data);
+            yRndr.updateLabels(data);
+            for (ChartSet set : data) {
+                digestData(set, last, last + 1);
+                set.clearDirty();
+            }
+            defineRegions(mRegions, data);
+        } else {
+            valuesRndr.clearDataBorders();
+            layoutChart();
+        }
+        requestFrame();
+    }
+
+
+    /**
+     * Redraws the chart within the frame being processed, such as from the frame callback
+     * or an animation update, unless the maximum refresh rate doesn't allow it yet.
+     * Must be called from the UI thread.
+     *
+     * @param frameTimeNanos Time of the frame, in the {@link System#nanoTime()} time base
+     */
+    private void drawFrame(long frameTimeNanos) {
+
+        if (frameTimeNanos - mLastFrameTime < mMinFrameInterval - FRAME_INTERVAL_SLACK) {
+            requestFrame();
+            return;
+        }
+        // Any redraw already scheduled is served by this one
+        if (mIsFramePosted) {
+            Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+            mIsFramePosted = false;
+        }
+        mLastFrameTime = frameTimeNanos;
+        invalidate();
+    }
+
+
+    /**
+     * Schedules a redraw on the next frame, for requests made outside of a frame.
+     * Any further request until then is merged into the same redraw.
+     * Must be called from the UI thread.
+     */
+    void requestFrame() {
+
+        if (mIsFramePosted) return;
+        mIsFramePosted = true;
+        Choreographer.getInstance().postFrameCallback(mFrameCallback);
+    }
+
+
     /**
      * Toggles {@link Tooltip} between show and dismiss.
      *
@@ -873,6 +1662,18 @@ public abstract class ChartView extends RelativeLayout {
      */
     public float getZeroPosition() {
 
+        return getZeroPosition(xRndr, yRndr);
+    }
+
+    /**
+     * Returns the position of 0 value as laid out by the given renderers.
+     *
+     * @param xRndr Horizontal renderer, already laid out
+     * @param yRndr Vertical renderer, already laid out
+     * @return Position of 0 value
+     */
+    float getZeroPosition(XRenderer xRndr, YRenderer yRndr) {
+
         AxisRenderer rndr;
         if (mOrientation == Orientation.VERTICAL) rndr = yRndr;
         else rndr = xRndr;
@@ -913,6 +1714,21 @@ public abstract class ChartView extends RelativeLayout {
         return this;
     }
 
+    /**
+     * Limits how often the chart is redrawn while animating or updating data,
+     * saving battery on screens refreshing faster than needed.
+     *
+     * @param fps Maximum number of frames per second, 0 for no limit
+     * @return {@link com.aiqfome.aiqchart.view.ChartView} self-reference.
+     */
+    public ChartView setMaxRefreshRate(@IntRange(from = 0) int fps) {
+
+        if (fps < 0) throw new IllegalArgumentException("Refresh rate can't be negative.");
+
+        mMinFrameInterval = (fps == 0) ? 0 : 1000000000L / fps;
+        return this;
+    }
+
     /**
      * Get chart's border spacing.
      *
@@ -951,27 +1767,40 @@ public abstract class ChartView extends RelativeLayout {
      */
     public ArrayList<Rect> getEntriesArea(int index) {
 
-        checkPositionIndex(index, mRegions.size());
-        ArrayList<Rect> result = new ArrayList<>(mRegions.get(index).size());
-        for (Region r : mRegions.get(index))
-            result.add(getEntryRect(r));
+        checkPositionIndex(index, mRegions.getNumberOfSets());
+        ArrayList<Rect> result = new ArrayList<>(mRegions.getNumberOfEntries());
+        for (int i = 0; i < mRegions.getNumberOfEntries(); i++)
+            result.add(getEntryRect(index, i));
 
         return result;
     }
 
     /**
-     * Get the area, {@link Rect}, of an entry from the entry's {@link
-     * Region}
+     * Get the area, {@link Rect}, of an entry from the entry's clickable region.
      *
-     * @param region Region covering {@link ChartEntry} area
+     * @param setIndex   {@link com.aiqfome.aiqchart.model.ChartSet} index
+     * @param entryIndex {@link ChartEntry} index
      * @return {@link Rect} specifying the area of an {@link ChartEntry}
      */
-    Rect getEntryRect(@NonNull Region region) {
-        checkNotNull(region);
+    Rect getEntryRect(int setIndex, int entryIndex) {
+
         // Subtract the view left/top padding to correct position
-        return new Rect(region.getBounds().left - getPaddingLeft(),
-                region.getBounds().top - getPaddingTop(), region.getBounds().right - getPaddingLeft(),
-                region.getBounds().bottom - getPaddingTop());
+        return mRegions.getRect(setIndex, entryIndex, -getPaddingLeft(), -getPaddingTop());
+    }
+
+    /**
+     * Finds the entry whose clickable region contains the given point.
+     * To be overridden in case the chart needs a different criteria to pick between
+     * overlapping regions.
+     *
+     * @param regions Clickable regions of the chart entries
+     * @param x       Touch x coordinate
+     * @param y       Touch y coordinate
+     * @return Index of the entry found, as set * number of entries + entry, -1 if none.
+     */
+    int findEntry(EntryRegions regions, int x, int y) {
+
+        return regions.find(x, y);
     }
 
     /**
@@ -1117,6 +1946,22 @@ public abstract class ChartView extends RelativeLayout {
         return this;
     }
 
+    /**
+     * Define how the chart should be rendered. By default the chart is hardware accelerated
+     * unless it uses features that require software rendering, shadows in devices
+     * before Android P.
+     *
+     * @param mode AUTO - Software rendering only when needed
+     *             HARDWARE - Always hardware accelerated, unsupported shadows are not drawn
+     *             SOFTWARE - Always software rendering
+     * @return {@link com.aiqfome.aiqchart.view.ChartView} self-reference.
+     */
+    public ChartView setRenderMode(@NonNull RenderMode mode) {
+
+        style.renderMode = checkNotNull(mode);
+        return this;
+    }
+
     /**
      * Define the thickness of the axis.
      *
@@ -1141,6 +1986,17 @@ public abstract class ChartView extends RelativeLayout {
         return this;
     }
 
+    /**
+     * Register a listener to be called with rendering metrics. Metrics are only
+     * measured while a listener is registered.
+     *
+     * @param listener Listener to be used for callback, null to stop measuring.
+     */
+    public void setOnChartMetricsListener(OnChartMetricsListener listener) {
+
+        this.mMetricsListener = listener;
+    }
+
     /**
      * Register a listener to be called when an {@link ChartEntry} is clicked.
      *
@@ -1331,9 +2187,9 @@ public abstract class ChartView extends RelativeLayout {
      *
      * @param regions Clickable regions where touch event will be detected.
      */
-    void setClickableRegions(ArrayList<ArrayList<Region>> regions) {
+    void setClickableRegions(@NonNull EntryRegions regions) {
 
-        mRegions = regions;
+        mRegions = checkNotNull(regions);
     }
 
 
@@ -1351,6 +2207,10 @@ public abstract class ChartView extends RelativeLayout {
                                int[] color) {
 
         paint.setAlpha((int) (alpha * style.FULL_ALPHA));
+        if (radius == 0 || !mShadowsEnabled) {
+            paint.clearShadowLayer();
+            return;
+        }
         paint.setShadowLayer(radius, dx, dy,
                 Color.argb(((int) (alpha * style.FULL_ALPHA) < color[0]) ? (int) (alpha * style.FULL_ALPHA) : color[0],
                         color[1], color[2], color[3]));
@@ -1369,6 +2229,22 @@ public abstract class ChartView extends RelativeLayout {
     }
 
 
+    public enum RenderMode {
+        /**
+         * Hardware accelerated unless a feature in use requires software rendering.
+         */
+        AUTO,
+        /**
+         * Always hardware accelerated, features not supported are not drawn.
+         */
+        HARDWARE,
+        /**
+         * Always software rendering.
+         */
+        SOFTWARE
+    }
+
+
     /**
      * Class responsible to style the Graph!
      * Can be instantiated with or without attributes.
@@ -1446,6 +2322,11 @@ public abstract class ChartView extends RelativeLayout {
          */
         private int fontMaxHeight;
 
+        /**
+         * Bounds reused while measuring labels
+         */
+        private final Rect labelBounds = new Rect();
+
         private int gridRows;
 
         private int gridColumns;
@@ -1455,6 +2336,11 @@ public abstract class ChartView extends RelativeLayout {
          */
         private DecimalFormat labelsFormat;
 
+        /**
+         * How the chart should be rendered
+         */
+        private RenderMode renderMode;
+
 
         Style(Context context) {
 
@@ -1476,6 +2362,7 @@ public abstract class ChartView extends RelativeLayout {
             gridColumns = DEFAULT_GRID_OFF;
 
             labelsFormat = new DecimalFormat();
+            renderMode = RenderMode.AUTO;
         }
 
 
@@ -1520,12 +2407,51 @@ public abstract class ChartView extends RelativeLayout {
             axisTopSpacing = arr.getDimensionPixelSize(R.styleable.ChartAttrs_chart_axisTopSpacing,
                     context.getResources().getDimensionPixelSize(R.dimen.axis_top_spacing));
 
+            switch (arr.getInt(R.styleable.ChartAttrs_chart_renderMode, 0)) {
+                case 1:
+                    renderMode = RenderMode.HARDWARE;
+                    break;
+                case 2:
+                    renderMode = RenderMode.SOFTWARE;
+                    break;
+                default:
+                    renderMode = RenderMode.AUTO;
+                    break;
+            }
+
             gridRows = DEFAULT_GRID_OFF;
             gridColumns = DEFAULT_GRID_OFF;
 
             labelsFormat = new DecimalFormat();
         }
 
+
+        /**
+         * Copy of another style, with paints of its own once initiated, to lay out
+         * the chart apart from the style drawing it.
+         *
+         * @param other Style to be copied
+         */
+        Style(Style other) {
+
+            hasXAxis = other.hasXAxis;
+            hasYAxis = other.hasYAxis;
+            axisThickness = other.axisThickness;
+            axisColor = other.axisColor;
+            axisLabelsSpacing = other.axisLabelsSpacing;
+            axisBorderSpacing = other.axisBorderSpacing;
+            axisTopSpacing = other.axisTopSpacing;
+            xLabelsPositioning = other.xLabelsPositioning;
+            yLabelsPositioning = other.yLabelsPositioning;
+            labelsColor = other.labelsColor;
+            fontSize = other.fontSize;
+            typeface = other.typeface;
+            gridRows = other.gridRows;
+            gridColumns = other.gridColumns;
+            labelsFormat = (DecimalFormat) other.labelsFormat.clone();
+            renderMode = other.renderMode;
+        }
+
         private void init() {
 
             chartPaint = new Paint();
@@ -1541,7 +2467,7 @@ public abstract class ChartView extends RelativeLayout {
             labelsPaint.setTextSize(fontSize);
             labelsPaint.setTypeface(typeface);
 
-            fontMaxHeight = (int) (style.labelsPaint.descent() - style.labelsPaint.ascent());
+            fontMaxHeight = (int) (labelsPaint.descent() - labelsPaint.ascent());
         }
 
         private void clean() {
@@ -1559,9 +2485,8 @@ public abstract class ChartView extends RelativeLayout {
          */
         public int getLabelHeight(String text) {
 
-            final Rect rect = new Rect();
-            style.labelsPaint.getTextBounds(text, 0, text.length(), rect);
-            return rect.height();
+            labelsPaint.getTextBounds(text, 0, text.length(), labelBounds);
+            return labelBounds.height();
         }
 
         public Paint getChartPaint() {
@@ -1639,17 +2564,16 @@ public abstract class ChartView extends RelativeLayout {
         public boolean onSingleTapUp(MotionEvent ev) {
 
             if (mEntryListener != null || mTooltip != null) { // Check if tap on any entry
-                int nSets = mRegions.size();
-                int nEntries = mRegions.get(0).size();
-                for (int i = 0; i < nSets; i++)
-                    for (int j = 0; j < nEntries; j++)
-                        if (mRegions.get(i).get(j).contains((int) ev.getX(), (int) ev.getY())) {
-                            if (mEntryListener != null)  // Trigger entry callback
-                                mEntryListener.onClick(i, j, getEntryRect(mRegions.get(i).get(j)));
-                            if (mTooltip != null)  // Toggle tooltip
-                                toggleTooltip(getEntryRect(mRegions.get(i).get(j)), data.get(i).getValue(j));
-                            return true;
-                        }
+                int entry = findEntry(mRegions, (int) ev.getX(), (int) ev.getY());
+                if (entry != -1) {
+                    int i = entry / mRegions.getNumberOfEntries();
+                    int j = entry % mRegions.getNumberOfEntries();
+                    if (mEntryListener != null)  // Trigger entry callback
+                        mEntryListener.onClick(i, j, getEntryRect(i, j));
+                    if (mTooltip != null)  // Toggle tooltip
+                        toggleTooltip(getEntryRect(i, j), data.get(i).getValue(j));
+                    return true;
+                }
             }
 
             if (mChartListener != null) mChartListener.onClick(ChartView.this);
@@ -0,0 +1,239 @@
+package com.aiqfome.aiqchart.view;
+
+import android.graphics.Rect;
+
+import java.util.Arrays;
+
+import static com.aiqfome.aiqchart.util.Preconditions.checkPositionIndex;
+
+
+/**
+ * Clickable regions of all chart entries, stored as flat rectangles and indexed for
+ * tap lookup. Rectangles are sorted along the axis in which they are narrower, so a
+ * lookup only visits the few regions overlapping the tap in that axis.
+ */
+final class EntryRegions {
+
+    private int mNSets;
+
+    private int mNEntries;
+
+    /**
+     * Rectangles, indexed by set * number of entries + entry
+     */
+    private int[] mLeft;
+
+    private int[] mTop;
+
+    private int[] mRight;
+
+    private int[] mBottom;
+
+    /**
+     * Regions sorted by their start in the indexed axis, packed with the start in
+     * the upper 32 bits and the region in the lower 32 bits
+     */
+    private long[] mSorted;
+
+    private boolean mSortedByX;
+
+    private int mMaxExtent;
+
+    private boolean mIsDirty;
+
+
+    EntryRegions() {
+
+        mLeft = new int[0];
+        mTop = new int[0];
+        mRight = new int[0];
+        mBottom = new int[0];
+        mSorted = new long[0];
+    }
+
+
+    /**
+     * Prepares space for the regions of the given number of sets and entries,
+     * all regions being empty.
+     *
+     * @param nSets    Number of sets
+     * @param nEntries Number of entries per set
+     */
+    void reset(int nSets, int nEntries) {
+
+        mNSets = nSets;
+        mNEntries = nEntries;
+
+        final int size = nSets * nEntries;
+        if (mLeft.length < size) {
+            mLeft = new int[size];
+            mTop = new int[size];
+            mRight = new int[size];
+            mBottom = new int[size];
+            mSorted = new long[size];
+        } else {
+            Arrays.fill(mLeft, 0, size, 0);
+            Arrays.fill(mTop, 0, size, 0);
+            Arrays.fill(mRight, 0, size, 0);
+            Arrays.fill(mBottom, 0, size, 0);
+        }
+        mIsDirty = true;
+    }
+
+
+    /**
+     * Defines the region of an entry.
+     *
+     * @param setIndex   Set's index
+     * @param entryIndex Entry's index
+     */
+    void set(int setIndex, int entryIndex, int left, int top, int right, int bottom) {
+
+        final int region = index(setIndex, entryIndex);
+        mLeft[region] = left;
+        mTop[region] = top;
+        mRight[region] = right;
+        mBottom[region] = bottom;
+        mIsDirty = true;
+    }
+
+
+    int getNumberOfSets() {
+
+        return mNSets;
+    }
+
+
+    int getNumberOfEntries() {
+
+        return mNEntries;
+    }
+
+
+    /**
+     * @param setIndex   Set's index
+     * @param entryIndex Entry's index
+     * @param offsetX    Value added to the horizontal coordinates
+     * @param offsetY    Value added to the vertical coordinates
+     * @return {@link Rect} with the region of the entry.
+     */
+    Rect getRect(int setIndex, int entryIndex, int offsetX, int offsetY) {
+
+        final int region = index(setIndex, entryIndex);
+        return new Rect(mLeft[region] + offsetX, mTop[region] + offsetY,
+                mRight[region] + offsetX, mBottom[region] + offsetY);
+    }
+
+
+    /**
+     * Finds the region containing the given point. If more than one region contains it,
+     * the one belonging to the first set, and then to the first entry, is returned.
+     *
+     * @return Index, set * number of entries + entry, of the region found, -1 if none.
+     */
+    int find(int x, int y) {
+
+        return search(x, y, false);
+    }
+
+
+    /**
+     * Finds, among the regions containing the given point, the one whose center is
+     * nearest to the point.
+     *
+     * @return Index, set * number of entries + entry, of the region found, -1 if none.
+     */
+    int findNearest(int x, int y) {
+
+        return search(x, y, true);
+    }
+
+
+    private int search(int x, int y, boolean nearest) {
+
+        if (mIsDirty) sort();
+
+        final int size = mNSets * mNEntries;
+        final int pos = mSortedByX ? x : y;
+
+        // Only regions starting in [pos - maxExtent, pos] may contain the point
+        int low = 0;
+        int high = size;
+        int mid;
+        while (low < high) {
+            mid = (low + high) >>> 1;
+            if ((int) (mSorted[mid] >> 32) < pos - mMaxExtent) low = mid + 1;
+            else high = mid;
+        }
+
+        int result = -1;
+        long bestDistance = Long.MAX_VALUE;
+        long distance;
+        long dx;
+        long dy;
+        int region;
+        for (int i = low; i < size && (int) (mSorted[i] >> 32) <= pos; i++) {
+
+            region = (int) mSorted[i];
+            if (!contains(region, x, y)) continue;
+
+            if (nearest) {
+                dx = 2L * x - mLeft[region] - mRight[region];
+                dy = 2L * y - mTop[region] - mBottom[region];
+                distance = dx * dx + dy * dy;
+                if (distance < bestDistance || distance == bestDistance && region < result) {
+                    bestDistance = distance;
+                    result = region;
+                }
+            } else if (result == -1 || region < result) {
+                result = region;
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Same semantics as {@link android.graphics.Region#contains(int, int)}.
+     */
+    private boolean contains(int region, int x, int y) {
+
+        return mLeft[region] < mRight[region] && mTop[region] < mBottom[region]
+                && x >= mLeft[region] && x < mRight[region]
+                && y >= mTop[region] && y < mBottom[region];
+    }
+
+
+    /**
+     * Sorts regions along the axis where they are narrower.
+     */
+    private void sort() {
+
+        final int size = mNSets * mNEntries;
+
+        int maxWidth = 0;
+        int maxHeight = 0;
+        for (int i = 0; i < size; i++) {
+            maxWidth = Math.max(maxWidth, mRight[i] - mLeft[i]);
+            maxHeight = Math.max(maxHeight, mBottom[i] - mTop[i]);
+        }
+        mSortedByX = maxWidth <= maxHeight;
+        mMaxExtent = mSortedByX ? maxWidth : maxHeight;
+
+        final int[] starts = mSortedByX ? mLeft : mTop;
+        for (int i = 0; i < size; i++)
+            mSorted[i] = ((long) starts[i] << 32) | (i & 0xFFFFFFFFL);
+        Arrays.sort(mSorted, 0, size);
+
+        mIsDirty = false;
+    }
+
+
+    private int index(int setIndex, int entryIndex) {
+
+        checkPositionIndex(setIndex, mNSets - 1);
+        checkPositionIndex(entryIndex, mNEntries - 1);
+        return setIndex * mNEntries + entryIndex;
+    }
+
+}
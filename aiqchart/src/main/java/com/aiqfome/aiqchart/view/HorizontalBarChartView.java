@@ -2,9 +2,6 @@ package com.aiqfome.aiqchart.view;
 
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.LinearGradient;
-import android.graphics.Region;
-import android.graphics.Shader;
 import android.util.AttributeSet;
 
 import com.aiqfome.aiqchart.model.Bar;
@@ -43,97 +40,102 @@ public class HorizontalBarChartView extends BaseBarChartView {
 
         final int nSets = data.size();
         final int nEntries = data.get(0).size();
+        final float zeroPosition = this.getZeroPosition();
 
         float offset;
+        float setOffset;
+        int setPosition;
         BarSet barSet;
         Bar bar;
 
-        for (int i = 0; i < nEntries; i++) {
+        // Draw only the groups inside the inner chart area
+        final int first = getFirstVisibleIndex(data.get(0), 0, nEntries);
+        final int last = getLastVisibleIndex(data.get(0), 0, nEntries);
+        countDrawnEntries((last - first) * nSets, nEntries * nSets);
+
+        // Draw backgrounds first, all at once, so they stay behind every bar
+        if (style.hasBarBackground) {
+            for (int i = first; i < last; i++) {
+                offset = data.get(0).getY(i) - drawingOffset;
+                for (int j = 0; j < nSets; j++) {
+                    if (!data.get(j).isVisible()) continue;
+                    drawBarBackground(this.getInnerChartLeft(), offset, this.getInnerChartRight(),
+                            offset + barWidth);
+                    offset += barWidth + style.setSpacing;
+                }
+            }
+            drawBatch(canvas);
+        }
 
-            // Set first offset to draw a group of bars
-            offset = data.get(0).getEntry(i).getY() - drawingOffset;
+        // Draw set by set, so bars styled the same way are batched together
+        setPosition = 0;
+        for (int j = 0; j < nSets; j++) {
 
-            for (int j = 0; j < nSets; j++) {
+            barSet = (BarSet) data.get(j);
+            if (!barSet.isVisible()) continue;
 
-                barSet = (BarSet) data.get(j);
-                bar = (Bar) barSet.getEntry(i);
+            // Offset of the set's bar within each group, only visible sets take space
+            setOffset = setPosition * (barWidth + style.setSpacing) - drawingOffset;
+            setPosition++;
+
+            for (int i = first; i < last; i++) {
 
-                // If entry value is 0 it won't be drawn
-                if (!barSet.isVisible()) continue;
+                bar = (Bar) barSet.getEntry(i);
+                offset = data.get(0).getY(i) + setOffset;
 
                 // Style it!
-                if (!bar.hasGradientColor()) style.barPaint.setColor(bar.getColor());
-                else style.barPaint.setShader(
-                        new LinearGradient(this.getZeroPosition(), bar.getY(), bar.getX(), bar.getY(),
-                                bar.getGradientColors(), bar.getGradientPositions(),
-                                Shader.TileMode.MIRROR));
-                applyShadow(style.barPaint, barSet.getAlpha(), bar.getShadowDx(), bar
-                        .getShadowDy(), bar.getShadowRadius(), bar.getShadowColor());
-
-                // Draw background
-                if (style.hasBarBackground)
-                    drawBarBackground(canvas, this.getInnerChartLeft(), offset,
-                            this.getInnerChartRight(), (offset + barWidth));
+                applyBarStyle(canvas, bar, barSet.getAlpha(), zeroPosition, bar.getY(), bar.getX(),
+                        bar.getY());
 
                 // Draw bar
                 if (bar.getValue() >= 0) // Positive
-                    drawBar(canvas, this.getZeroPosition(), offset, bar.getX(), offset + barWidth);
+                    drawBar(canvas, zeroPosition, offset, bar.getX(), offset + barWidth);
                 else // Negative
-                    drawBar(canvas, bar.getX(), offset, this.getZeroPosition(), offset + barWidth);
-
-                offset += barWidth;
-
-                // If last bar of group no set spacing is necessary
-                if (j != nSets - 1) offset += style.setSpacing;
+                    drawBar(canvas, bar.getX(), offset, zeroPosition, offset + barWidth);
             }
         }
+        drawBatch(canvas);
     }
 
     @Override
     protected void onPreDrawChart(ArrayList<ChartSet> data) {
 
         // In case of only on entry
-        if (data.get(0).size() == 1) {
-            style.barSpacing = 0;
-            calculateBarsWidth(data.size(), 0, this.getInnerChartBottom()
-                    - this.getInnerChartTop()
-                    - this.getBorderSpacing() * 2);
-            // In case of more than one entry
-        } else calculateBarsWidth(data.size(), data.get(0).getEntry(1).getY(),
-                data.get(0).getEntry(0).getY());
-
+        if (data.get(0).size() == 1) style.barSpacing = 0;
+        barWidth = calculateBarsWidth(data, xRndr, yRndr);
         calculatePositionOffset(data.size());
     }
 
     @Override
-    void defineRegions(ArrayList<ArrayList<Region>> regions, ArrayList<ChartSet> data) {
+    void defineRegions(EntryRegions regions, ArrayList<ChartSet> data, float barWidth,
+                       float drawingOffset, float zeroPosition) {
 
         int nSets = data.size();
         int nEntries = data.get(0).size();
 
         float offset;
-        BarSet barSet;
-        Bar bar;
+        float value;
+        float x;
 
         for (int i = 0; i < nEntries; i++) {
 
             // Set first offset to draw a group of bars
-            offset = data.get(0).getEntry(i).getY() - drawingOffset;
+            offset = data.get(0).getY(i) - drawingOffset;
 
             for (int j = 0; j < nSets; j++) {
 
-                barSet = (BarSet) data.get(j);
-                bar = (Bar) barSet.getEntry(i);
-
-                if (bar.getValue() > 0 && (int) bar.getX() != (int) this.getZeroPosition())
-                    regions.get(j).get(i).set((int) this.getZeroPosition(), (int) offset,
-                            (int) bar.getX(), (int) (offset + barWidth));
-                else if (bar.getValue() < 0 && (int) bar.getX() != (int) this.getZeroPosition())
-                    regions.get(j).get(i).set((int) bar.getX(), (int) offset,
-                            (int) this.getZeroPosition(), (int) (offset + barWidth));
-                else // If bar.getValue() == 0, force region to 1 pixel
-                    regions.get(j).get(i).set((int) this.getZeroPosition() - 1, (int) offset,
-                            (int) this.getZeroPosition(), (int) (offset + barWidth));
+                value = data.get(j).getValue(i);
+                x = data.get(j).getX(i);
+
+                if (value > 0 && (int) x != (int) zeroPosition)
+                    regions.set(j, i, (int) zeroPosition, (int) offset,
+                            (int) x, (int) (offset + barWidth));
+                else if (value < 0 && (int) x != (int) zeroPosition)
+                    regions.set(j, i, (int) x, (int) offset,
+                            (int) zeroPosition, (int) (offset + barWidth));
+                else // If value == 0, force region to 1 pixel
+                    regions.set(j, i, (int) zeroPosition - 1, (int) offset,
+                            (int) zeroPosition, (int) (offset + barWidth));
 
                 // If last bar of group no set spacing is necessary
                 if (j != nSets - 1) offset += style.setSpacing;
@@ -8,19 +8,26 @@ import android.graphics.DashPathEffect;
 import android.graphics.LinearGradient;
 import android.graphics.Paint;
 import android.graphics.Path;
-import android.graphics.Region;
 import android.graphics.Shader;
 import android.util.AttributeSet;
+import android.util.Log;
 
 import androidx.annotation.FloatRange;
+import androidx.annotation.NonNull;
 
 import com.aiqfome.aiqchart.R;
-import com.aiqfome.aiqchart.util.Tools;
+import com.aiqfome.aiqchart.util.DrawableBitmapCache;
+import com.aiqfome.aiqchart.util.Downsampler;
 import com.aiqfome.aiqchart.model.ChartSet;
+import com.aiqfome.aiqchart.model.ColumnarLineSet;
 import com.aiqfome.aiqchart.model.LineSet;
 import com.aiqfome.aiqchart.model.Point;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
+import static com.aiqfome.aiqchart.util.Preconditions.checkNotNull;
 
 
 /**
@@ -28,8 +35,21 @@ import java.util.ArrayList;
  */
 public class LineChartView extends ChartView {
 
+    private static final String TAG = "chart.view.LineChartView";
+
     private static final float SMOOTH_FACTOR = 0.15f;
 
+    /**
+     * Memory, in bytes, used to keep rasterized dot drawables, room for a few dozen dots
+     */
+    private static final int DOTS_CACHE_SIZE = 512 * 1024;
+
+    /**
+     * Bitmaps of dot drawables, shared by all charts since dots are usually the same
+     */
+    private static final DrawableBitmapCache DOTS_BITMAP_CACHE =
+            new DrawableBitmapCache(DOTS_CACHE_SIZE);
+
     /**
      * Style applied to line chart
      */
@@ -40,6 +60,11 @@ public class LineChartView extends ChartView {
      */
     private float mClickableRadius;
 
+    /**
+     * Paths, path effects and shaders built for each set, kept between frames
+     */
+    private final WeakHashMap<LineSet, RenderCache> mRenderCache;
+
 
     public LineChartView(Context context, AttributeSet attrs) {
 
@@ -49,6 +74,7 @@ public class LineChartView extends ChartView {
         mStyle = new Style(
                 context.getTheme().obtainStyledAttributes(attrs, R.styleable.ChartAttrs, 0, 0));
         mClickableRadius = context.getResources().getDimension(R.dimen.dot_region_radius);
+        mRenderCache = new WeakHashMap<>();
     }
 
 
@@ -59,6 +85,7 @@ public class LineChartView extends ChartView {
         setOrientation(Orientation.VERTICAL);
         mStyle = new Style();
         mClickableRadius = context.getResources().getDimension(R.dimen.dot_region_radius);
+        mRenderCache = new WeakHashMap<>();
     }
 
 
@@ -74,6 +101,19 @@ public class LineChartView extends ChartView {
         return i;
     }
 
+
+    /**
+     * Given a position in indexes, it will return the entry index at that position.
+     * Positions out of indexes continue to the entries adjacent to the first or last
+     * index, always within the set.
+     */
+    private static int ni(int setSize, int[] indexes, int count, int k) {
+
+        if (k < 0) return si(setSize, indexes[0] + k);
+        else if (k >= count) return si(setSize, indexes[count - 1] + k - count + 1);
+        return indexes[k];
+    }
+
     @Override
     public void onAttachedToWindow() {
 
@@ -86,13 +126,17 @@ public class LineChartView extends ChartView {
 
         super.onDetachedFromWindow();
         mStyle.clean();
+        mRenderCache.clear();
+        // Dot bitmaps aren't released, they may still be drawn by other charts
     }
 
     @Override
     public void onDrawChart(Canvas canvas, ArrayList<ChartSet> data) {
 
         LineSet lineSet;
-        Path linePath;
+        RenderCache cache;
+        int begin;
+        int end;
 
         for (ChartSet set : data) {
 
@@ -100,35 +144,59 @@ public class LineChartView extends ChartView {
 
             if (lineSet.isVisible()) {
 
+                cache = mRenderCache.get(lineSet);
+                if (cache == null) {
+                    cache = new RenderCache();
+                    mRenderCache.put(lineSet, cache);
+                }
+
                 mStyle.mLinePaint.setColor(lineSet.getColor());
                 mStyle.mLinePaint.setStrokeWidth(lineSet.getThickness());
                 applyShadow(mStyle.mLinePaint, lineSet.getAlpha(), lineSet.getShadowDx(), lineSet
                         .getShadowDy(), lineSet.getShadowRadius(), lineSet.getShadowColor());
 
-                if (lineSet.isDashed()) mStyle.mLinePaint.setPathEffect(
-                        new DashPathEffect(lineSet.getDashedIntervals(), lineSet.getDashedPhase()));
+                if (lineSet.isDashed())
+                    mStyle.mLinePaint.setPathEffect(cache.getDashPathEffect(lineSet));
                 else mStyle.mLinePaint.setPathEffect(null);
 
-                if (!lineSet.isSmooth()) linePath = createLinePath(lineSet);
-                else linePath = createSmoothLinePath(lineSet);
+                // Draw only the entries inside the inner chart area
+                begin = getFirstVisibleIndex(lineSet, lineSet.getBegin(), lineSet.getEnd());
+                end = getLastVisibleIndex(lineSet, lineSet.getBegin(), lineSet.getEnd());
+
+                // Rebuild paths only if entries, line style or chart bounds changed
+                if (!cache.isValid(lineSet, begin, end, getInnerChartBottom())) {
+
+                    cache.sample(lineSet, begin, end, getInnerChartRight() - getInnerChartLeft());
+
+                    cache.linePath.rewind();
+                    if (!lineSet.isSmooth())
+                        createLinePath(lineSet, cache.indexes, cache.count, cache.linePath);
+                    else createSmoothLinePath(lineSet, cache.indexes, cache.count, cache.linePath);
+
+                    cache.fillPath.set(cache.linePath);
+                    createBackgroundPath(cache.fillPath, lineSet, cache.indexes[0],
+                            cache.indexes[cache.count - 1]);
+                }
 
                 //Draw background
-                if (lineSet.hasFill() || lineSet.hasGradientFill())
-                    canvas.drawPath(createBackgroundPath(new Path(linePath), lineSet), mStyle.mFillPaint);
+                if (lineSet.hasFill() || lineSet.hasGradientFill()) {
+                    styleBackground(lineSet, cache);
+                    canvas.drawPath(cache.fillPath, mStyle.mFillPaint);
+                }
 
                 //Draw line
-                canvas.drawPath(linePath, mStyle.mLinePaint);
+                canvas.drawPath(cache.linePath, mStyle.mLinePaint);
 
                 //Draw points
-                drawPoints(canvas, lineSet);
+                drawPoints(canvas, lineSet, cache.indexes, cache.count);
+                countDrawnEntries(cache.count, lineSet.size());
             }
         }
 
     }
 
     @Override
-    void defineRegions(ArrayList<ArrayList<Region>>
-                               regions, ArrayList<ChartSet> data) {
+    void defineRegions(EntryRegions regions, ArrayList<ChartSet> data) {
 
         float x;
         float y;
@@ -139,28 +207,71 @@ public class LineChartView extends ChartView {
             setSize = data.get(0).size();
             for (int j = 0; j < setSize; j++) {
 
-                x = data.get(i).getEntry(j).getX();
-                y = data.get(i).getEntry(j).getY();
-                regions.get(i)
-                        .get(j)
-                        .set((int) (x - mClickableRadius), (int) (y - mClickableRadius),
-                                (int) (x + mClickableRadius), (int) (y + mClickableRadius));
+                x = data.get(i).getX(j);
+                y = data.get(i).getY(j);
+                regions.set(i, j, (int) (x - mClickableRadius), (int) (y - mClickableRadius),
+                        (int) (x + mClickableRadius), (int) (y + mClickableRadius));
             }
         }
     }
 
+    /**
+     * Dots regions don't depend on each other, only the changed ones are defined again.
+     */
+    @Override
+    void updateRegions(EntryRegions regions, ArrayList<ChartSet> data) {
+
+        float x;
+        float y;
+        ChartSet set;
+        int dataSize = data.size();
+        for (int i = 0; i < dataSize; i++) {
+
+            set = data.get(i);
+            for (int j = set.getDirtyBegin(); j < set.getDirtyEnd(); j++) {
+
+                x = set.getX(j);
+                y = set.getY(j);
+                regions.set(i, j, (int) (x - mClickableRadius), (int) (y - mClickableRadius),
+                        (int) (x + mClickableRadius), (int) (y + mClickableRadius));
+            }
+        }
+    }
+
+    /**
+     * Dots regions only depend on display coordinates, they are defined in background too.
+     * Paths are still built on the first draw.
+     */
+    @Override
+    Object prepareChart(ChartLayout layout) {
+
+        defineRegions(layout.regions, layout.data);
+        return null;
+    }
+
+    /**
+     * Dots regions overlap in dense sets, the one nearest to the touch is picked.
+     */
+    @Override
+    int findEntry(EntryRegions regions, int x, int y) {
+
+        return regions.findNearest(x, y);
+    }
+
 
     /**
      * Responsible for drawing points
      */
-    private void drawPoints(Canvas canvas, LineSet set) {
+    private void drawPoints(Canvas canvas, LineSet set, int[] indexes, int count) {
 
-        int begin = set.getBegin();
-        int end = set.getEnd();
         Point dot;
-        for (int i = begin; i < end; i++) {
+        float x;
+        float y;
+        for (int k = 0; k < count; k++) {
 
-            dot = (Point) set.getEntry(i);
+            dot = set.getDotStyle(indexes[k]);
+            x = set.getX(indexes[k]);
+            y = set.getY(indexes[k]);
 
             if (dot.isVisible()) {
 
@@ -171,7 +282,7 @@ public class LineChartView extends ChartView {
                         .getShadowDy(), dot.getShadowRadius(), dot.getShadowColor());
 
                 // Draw dot
-                canvas.drawCircle(dot.getX(), dot.getY(), dot.getRadius(), mStyle.mDotsPaint);
+                canvas.drawCircle(x, y, dot.getRadius(), mStyle.mDotsPaint);
 
                 //Draw dots stroke
                 if (dot.hasStroke()) {
@@ -183,14 +294,15 @@ public class LineChartView extends ChartView {
                     applyShadow(mStyle.mDotsStrokePaint, set.getAlpha(), dot.getShadowDx(), dot
                             .getShadowDy(), dot.getShadowRadius(), dot.getShadowColor());
 
-                    canvas.drawCircle(dot.getX(), dot.getY(), dot.getRadius(), mStyle.mDotsStrokePaint);
+                    canvas.drawCircle(x, y, dot.getRadius(), mStyle.mDotsStrokePaint);
                 }
 
                 // Draw drawable
                 if (dot.getDrawable() != null) {
-                    Bitmap dotsBitmap = Tools.drawableToBitmap(dot.getDrawable());
-                    canvas.drawBitmap(dotsBitmap, dot.getX() - dotsBitmap.getWidth() / 2,
-                            dot.getY() - dotsBitmap.getHeight() / 2, mStyle.mDotsPaint);
+                    Bitmap dotsBitmap = DOTS_BITMAP_CACHE.get(dot.getDrawable());
+                    if (dotsBitmap != null)
+                        canvas.drawBitmap(dotsBitmap, x - dotsBitmap.getWidth() / 2,
+                                y - dotsBitmap.getHeight() / 2, mStyle.mDotsPaint);
                 }
             }
         }
@@ -201,18 +313,17 @@ public class LineChartView extends ChartView {
     /**
      * Responsible for drawing a (non smooth) line.
      *
-     * @param set {@link LineSet} object
+     * @param set     {@link LineSet} object
+     * @param indexes Ascending indexes of the entries forming the line
+     * @param count   Number of indexes to use
+     * @param res     {@link Path} object where the line will be added
      * @return {@link Path} object containing line
      */
-    Path createLinePath(LineSet set) {
-
-        Path res = new Path();
+    Path createLinePath(LineSet set, int[] indexes, int count, Path res) {
 
-        int begin = set.getBegin();
-        int end = set.getEnd();
-        for (int i = begin; i < end; i++) {
-            if (i == begin) res.moveTo(set.getEntry(i).getX(), set.getEntry(i).getY());
-            else res.lineTo(set.getEntry(i).getX(), set.getEntry(i).getY());
+        for (int k = 0; k < count; k++) {
+            if (k == 0) res.moveTo(set.getX(indexes[k]), set.getY(indexes[k]));
+            else res.lineTo(set.getX(indexes[k]), set.getY(indexes[k]));
         }
 
         return res;
@@ -223,10 +334,13 @@ public class LineChartView extends ChartView {
      * Credits: http://www.jayway.com/author/andersericsson/
      * Method responsible to draw a smooth line with the parsed screen points.
      *
-     * @param set {@link LineSet} object.
+     * @param set     {@link LineSet} object.
+     * @param indexes Ascending indexes of the entries forming the line
+     * @param count   Number of indexes to use
+     * @param res     {@link Path} object where the smooth line will be added
      * @return {@link Path} object containing smooth line
      */
-    Path createSmoothLinePath(LineSet set) {
+    Path createSmoothLinePath(LineSet set, int[] indexes, int count, Path res) {
 
         float thisPointX;
         float thisPointY;
@@ -241,24 +355,26 @@ public class LineChartView extends ChartView {
         float secondControlX;
         float secondControlY;
 
-        Path res = new Path();
-        res.moveTo(set.getEntry(set.getBegin()).getX(), set.getEntry(set.getBegin()).getY());
+        int prev;
+        int afterNext;
 
-        int begin = set.getBegin();
-        int end = set.getEnd();
-        for (int i = begin; i < end - 1; i++) {
+        res.moveTo(set.getX(indexes[0]), set.getY(indexes[0]));
 
-            thisPointX = set.getEntry(i).getX();
-            thisPointY = set.getEntry(i).getY();
+        for (int k = 0; k < count - 1; k++) {
 
-            nextPointX = set.getEntry(i + 1).getX();
-            nextPointY = set.getEntry(i + 1).getY();
+            thisPointX = set.getX(indexes[k]);
+            thisPointY = set.getY(indexes[k]);
 
-            startDiffX = (nextPointX - set.getEntry(si(set.size(), i - 1)).getX());
-            startDiffY = (nextPointY - set.getEntry(si(set.size(), i - 1)).getY());
+            nextPointX = set.getX(indexes[k + 1]);
+            nextPointY = set.getY(indexes[k + 1]);
 
-            endDiffX = (set.getEntry(si(set.size(), i + 2)).getX() - thisPointX);
-            endDiffY = (set.getEntry(si(set.size(), i + 2)).getY() - thisPointY);
+            prev = ni(set.size(), indexes, count, k - 1);
+            startDiffX = (nextPointX - set.getX(prev));
+            startDiffY = (nextPointY - set.getY(prev));
+
+            afterNext = ni(set.size(), indexes, count, k + 2);
+            endDiffX = (set.getX(afterNext) - thisPointX);
+            endDiffY = (set.getY(afterNext) - thisPointY);
 
             firstControlX = thisPointX + (SMOOTH_FACTOR * startDiffX);
             firstControlY = thisPointY + (SMOOTH_FACTOR * startDiffY);
@@ -276,30 +392,72 @@ public class LineChartView extends ChartView {
 
 
     /**
-     * Responsible for drawing line background
+     * Responsible for styling line background
      *
-     * @param path {@link Path} object containing line path
-     * @param set  {@link LineSet} object.
-     * @return {@link Path} object containing background
+     * @param set   {@link LineSet} object.
+     * @param cache {@link RenderCache} of the set
      */
-    private Path createBackgroundPath(Path path, LineSet set) {
+    private void styleBackground(LineSet set, RenderCache cache) {
 
         mStyle.mFillPaint.setAlpha((int) (set.getAlpha() * style.FULL_ALPHA));
 
         if (set.hasFill()) mStyle.mFillPaint.setColor(set.getFillColor());
         if (set.hasGradientFill()) mStyle.mFillPaint.setShader(
-                new LinearGradient(super.getInnerChartLeft(), super.getInnerChartTop(),
-                        super.getInnerChartLeft(), super.getInnerChartBottom(),
-                        set.getGradientColors(), set.getGradientPositions(), Shader.TileMode.MIRROR));
+                cache.getGradient(set, super.getInnerChartLeft(), super.getInnerChartTop(),
+                        super.getInnerChartBottom()));
+        else mStyle.mFillPaint.setShader(null);
+    }
+
+
+    /**
+     * Responsible for drawing line background
+     *
+     * @param path  {@link Path} object containing line path
+     * @param set   {@link LineSet} object.
+     * @param first Index of the first entry of the line
+     * @param last  Index of the last entry of the line
+     * @return {@link Path} object containing background
+     */
+    private Path createBackgroundPath(Path path, LineSet set, int first, int last) {
 
-        path.lineTo(set.getEntry(set.getEnd() - 1).getX(), super.getInnerChartBottom());
-        path.lineTo(set.getEntry(set.getBegin()).getX(), super.getInnerChartBottom());
+        path.lineTo(set.getX(last), super.getInnerChartBottom());
+        path.lineTo(set.getX(first), super.getInnerChartBottom());
         path.close();
 
         return path;
     }
 
 
+    /**
+     * Appends one value to each set, dropping their oldest entry, and redraws the chart.
+     * All sets must be {@link ColumnarLineSet}s, which keep their entries in a ring so
+     * that no data is moved or reallocated, and only the new entries are positioned.
+     *
+     * @param label  Label of the new entries
+     * @param values One value for each set, in the same order as the sets were added
+     */
+    public void stream(String label, @NonNull float... values) {
+
+        final ArrayList<ChartSet> data = getData();
+        if (checkNotNull(values).length != data.size())
+            throw new IllegalArgumentException("Number of values doesn't match number of sets.");
+        for (ChartSet set : data)
+            if (!(set instanceof ColumnarLineSet))
+                throw new IllegalArgumentException("Streaming requires ColumnarLineSet data.");
+
+        // Entries appended now wouldn't be positioned, leaving the chart inconsistent
+        if (!canStream()) {
+            Log.w(TAG, "Value streamed while chart is still not displayed or still displaying, "
+                    + "it will be ignored.");
+            return;
+        }
+
+        for (int i = 0; i < values.length; i++)
+            ((ColumnarLineSet) data.get(i)).append(label, values[i]);
+        notifyDataStreamed();
+    }
+
+
     /**
      * @param radius Point's radius where touch event will be detected
      * @return {@link com.aiqfome.aiqchart.view.LineChartView} self-reference.
@@ -311,6 +469,143 @@ public class LineChartView extends ChartView {
     }
 
 
+    /**
+     * Line rendering objects of a set, rebuilt only when what they depend on changes.
+     */
+    private static class RenderCache {
+
+        private final Path linePath = new Path();
+
+        private final Path fillPath = new Path();
+
+        /**
+         * Indexes of the entries drawn
+         */
+        private int[] indexes = new int[0];
+
+        private int count;
+
+        /**
+         * Version and number of screen coordinates, smoothness, drawn range and chart bottom
+         * the paths were built with
+         */
+        private int coordinatesVersion;
+
+        private int size = -1;
+
+        private boolean isSmooth;
+
+        private LineSet.Downsampling downsampling;
+
+        private int begin;
+
+        private int end;
+
+        private float bottom;
+
+        private boolean isBuilt;
+
+        private DashPathEffect dashPathEffect;
+
+        private float[] dashIntervals;
+
+        private int dashPhase;
+
+        private LinearGradient gradient;
+
+        private int[] gradientColors;
+
+        private float[] gradientPositions;
+
+        private float gradientLeft;
+
+        private float gradientTop;
+
+        private float gradientBottom;
+
+
+        /**
+         * Checks if the cached paths still match the set, updating the snapshot otherwise.
+         *
+         * @param set    {@link LineSet} object
+         * @param begin  Index of the first entry drawn
+         * @param end    Index after the last entry drawn
+         * @param bottom Inner chart bottom used to close the background
+         * @return True if the paths can be reused as they are.
+         */
+        private boolean isValid(LineSet set, int begin, int end, float bottom) {
+
+            final boolean valid = isBuilt && size == set.size()
+                    && coordinatesVersion == set.getCoordinatesVersion()
+                    && isSmooth == set.isSmooth() && downsampling == set.getDownsampling()
+                    && this.begin == begin
+                    && this.end == end && this.bottom == bottom;
+
+            size = set.size();
+            coordinatesVersion = set.getCoordinatesVersion();
+            isSmooth = set.isSmooth();
+            downsampling = set.getDownsampling();
+            this.begin = begin;
+            this.end = end;
+            this.bottom = bottom;
+            isBuilt = true;
+            return valid;
+        }
+
+
+        /**
+         * Selects the indexes of the entries to be drawn, according to the set's downsampling.
+         *
+         * @param set   {@link LineSet} object
+         * @param begin Index of the first entry drawn
+         * @param end   Index after the last entry drawn
+         * @param width Width, in pixels, available to draw the line
+         */
+        private void sample(LineSet set, int begin, int end, float width) {
+
+            if (indexes.length < end - begin) indexes = new int[end - begin];
+
+            if (set.getDownsampling() == LineSet.Downsampling.LTTB)
+                count = Downsampler.lttb(set, begin, end, (int) width, indexes);
+            else if (set.getDownsampling() == LineSet.Downsampling.MIN_MAX)
+                count = Downsampler.minMax(set, begin, end, indexes);
+            else count = Downsampler.sequence(begin, end, indexes);
+        }
+
+
+        private DashPathEffect getDashPathEffect(LineSet set) {
+
+            // Arrays are compared by content, the set's ones may be changed in place
+            if (dashPathEffect == null || !Arrays.equals(dashIntervals, set.getDashedIntervals())
+                    || dashPhase != set.getDashedPhase()) {
+                dashIntervals = set.getDashedIntervals().clone();
+                dashPhase = set.getDashedPhase();
+                dashPathEffect = new DashPathEffect(dashIntervals, dashPhase);
+            }
+            return dashPathEffect;
+        }
+
+
+        private LinearGradient getGradient(LineSet set, float left, float top, float bottom) {
+
+            if (gradient == null || !Arrays.equals(gradientColors, set.getGradientColors())
+                    || !Arrays.equals(gradientPositions, set.getGradientPositions())
+                    || gradientLeft != left || gradientTop != top || gradientBottom != bottom) {
+                gradientColors = set.getGradientColors().clone();
+                gradientPositions = (set.getGradientPositions() != null)
+                        ? set.getGradientPositions().clone() : null;
+                gradientLeft = left;
+                gradientTop = top;
+                gradientBottom = bottom;
+                gradient = new LinearGradient(left, top, left, bottom, gradientColors,
+                        gradientPositions, Shader.TileMode.MIRROR);
+            }
+            return gradient;
+        }
+
+    }
+
+
     /**
      * Class responsible to style the LineChart!
      * Can be instantiated with or without attributes.
@@ -0,0 +1,46 @@
+package com.aiqfome.aiqchart.animation;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import com.aiqfome.aiqchart.benchmark.ChartFixtures;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Collection;
+
+
+@RunWith(Parameterized.class)
+public class AnimationBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int mSize;
+
+
+    public AnimationBenchmark(int size) {
+
+        mSize = size;
+    }
+
+    @Parameterized.Parameters(name = "size={0}")
+    public static Collection<Object[]> sizes() {
+
+        return ChartFixtures.sizes();
+    }
+
+
+    @Test
+    public void calculateEntriesInitTime() {
+
+        final Animation anim = new Animation();
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning())
+            anim.calculateEntriesInitTime(mSize, 1000, .5f, null);
+    }
+
+}
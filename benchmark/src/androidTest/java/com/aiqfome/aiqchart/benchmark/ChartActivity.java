@@ -0,0 +1,10 @@
+package com.aiqfome.aiqchart.benchmark;
+
+import android.app.Activity;
+
+
+/**
+ * Empty activity giving charts a window to be attached to.
+ */
+public class ChartActivity extends Activity {
+}
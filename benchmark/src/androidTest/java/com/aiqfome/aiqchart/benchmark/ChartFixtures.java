@@ -0,0 +1,221 @@
+package com.aiqfome.aiqchart.benchmark;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.aiqfome.aiqchart.model.BarSet;
+import com.aiqfome.aiqchart.model.LineSet;
+import com.aiqfome.aiqchart.view.BarChartView;
+import com.aiqfome.aiqchart.view.ChartView;
+import com.aiqfome.aiqchart.view.HorizontalBarChartView;
+import com.aiqfome.aiqchart.view.HorizontalStackBarChartView;
+import com.aiqfome.aiqchart.view.LineChartView;
+import com.aiqfome.aiqchart.view.StackBarChartView;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+
+/**
+ * Data and charts shared by benchmarks.
+ */
+public final class ChartFixtures {
+
+    /**
+     * Size of the charts being drawn
+     */
+    public static final int WIDTH = 1080;
+
+    public static final int HEIGHT = 720;
+
+
+    private ChartFixtures() {
+    }
+
+
+    /**
+     * Number of entries every benchmark is run with.
+     *
+     * @return Parameters to be used by a {@link org.junit.runners.Parameterized} runner.
+     */
+    public static Collection<Object[]> sizes() {
+
+        return Arrays.asList(new Object[][]{{10}, {1000}, {100000}});
+    }
+
+
+    public static String[] labels(int size) {
+
+        final String[] result = new String[size];
+        for (int i = 0; i < size; i++)
+            result[i] = String.valueOf(i);
+        return result;
+    }
+
+
+    /**
+     * Deterministic values, a sine wave with some noise.
+     */
+    public static float[] values(int size, int seed) {
+
+        final float[] result = new float[size];
+        for (int i = 0; i < size; i++)
+            result[i] = (float) (Math.sin((i + seed * 100) * 0.01) * 100 + (i * 31 + seed) % 17);
+        return result;
+    }
+
+
+    public static LineSet lineSet(int size) {
+
+        final LineSet set = new LineSet(labels(size), values(size, 0));
+        set.setColor(0xFF3F51B5);
+        set.setThickness(4);
+        return set;
+    }
+
+
+    public static BarSet barSet(int size, int seed) {
+
+        final BarSet set = new BarSet(labels(size), values(size, seed));
+        set.setColor(0xFF009688 + seed * 0x202020);
+        return set;
+    }
+
+
+    /**
+     * Creates a {@link LineChartView} with a single set, ready to be drawn.
+     */
+    public static LineChartView lineChart(ActivityScenario<ChartActivity> scenario,
+                                          final int size) {
+
+        final LineChartView[] result = new LineChartView[1];
+        scenario.onActivity(new ActivityScenario.ActivityAction<ChartActivity>() {
+            @Override
+            public void perform(ChartActivity activity) {
+
+                result[0] = new LineChartView(activity);
+                result[0].addData(lineSet(size));
+                attach(activity, result[0]);
+            }
+        });
+        return result[0];
+    }
+
+
+    /**
+     * Creates a {@link BarChartView} with three sets, ready to be drawn.
+     */
+    public static BarChartView barChart(ActivityScenario<ChartActivity> scenario,
+                                        final int size) {
+
+        final BarChartView[] result = new BarChartView[1];
+        scenario.onActivity(new ActivityScenario.ActivityAction<ChartActivity>() {
+            @Override
+            public void perform(ChartActivity activity) {
+
+                result[0] = new BarChartView(activity);
+                addBarSets(result[0], size);
+                attach(activity, result[0]);
+            }
+        });
+        return result[0];
+    }
+
+
+    /**
+     * Creates a {@link StackBarChartView} with three sets, ready to be drawn.
+     */
+    public static StackBarChartView stackBarChart(ActivityScenario<ChartActivity> scenario,
+                                                  final int size) {
+
+        final StackBarChartView[] result = new StackBarChartView[1];
+        scenario.onActivity(new ActivityScenario.ActivityAction<ChartActivity>() {
+            @Override
+            public void perform(ChartActivity activity) {
+
+                result[0] = new StackBarChartView(activity);
+                addBarSets(result[0], size);
+                attach(activity, result[0]);
+            }
+        });
+        return result[0];
+    }
+
+
+    /**
+     * Creates a {@link HorizontalBarChartView} with three sets, ready to be drawn.
+     */
+    public static HorizontalBarChartView horizontalBarChart(
+            ActivityScenario<ChartActivity> scenario, final int size) {
+
+        final HorizontalBarChartView[] result = new HorizontalBarChartView[1];
+        scenario.onActivity(new ActivityScenario.ActivityAction<ChartActivity>() {
+            @Override
+            public void perform(ChartActivity activity) {
+
+                result[0] = new HorizontalBarChartView(activity);
+                addBarSets(result[0], size);
+                attach(activity, result[0]);
+            }
+        });
+        return result[0];
+    }
+
+
+    /**
+     * Creates a {@link HorizontalStackBarChartView} with three sets, ready to be drawn.
+     */
+    public static HorizontalStackBarChartView horizontalStackBarChart(
+            ActivityScenario<ChartActivity> scenario, final int size) {
+
+        final HorizontalStackBarChartView[] result = new HorizontalStackBarChartView[1];
+        scenario.onActivity(new ActivityScenario.ActivityAction<ChartActivity>() {
+            @Override
+            public void perform(ChartActivity activity) {
+
+                result[0] = new HorizontalStackBarChartView(activity);
+                addBarSets(result[0], size);
+                attach(activity, result[0]);
+            }
+        });
+        return result[0];
+    }
+
+
+    private static void addBarSets(ChartView chart, int size) {
+
+        for (int i = 0; i < 3; i++)
+            chart.addData(barSet(size, i));
+    }
+
+
+    /**
+     * Runs the given action on the main thread, waiting for it to finish.
+     */
+    public static void runOnMainSync(Runnable runnable) {
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(runnable);
+    }
+
+
+    /**
+     * Attaches the given chart to the activity's window, so it initializes its paints,
+     * then measures, lays out and shows it, leaving it ready to be drawn.
+     * The chart is left invisible, the window then doesn't draw it while tests do.
+     */
+    private static void attach(Activity activity, ChartView chart) {
+
+        activity.setContentView(chart, new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+        chart.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        chart.layout(0, 0, WIDTH, HEIGHT);
+        chart.show();
+        chart.getViewTreeObserver().dispatchOnPreDraw();
+        chart.setVisibility(View.INVISIBLE);
+    }
+
+}
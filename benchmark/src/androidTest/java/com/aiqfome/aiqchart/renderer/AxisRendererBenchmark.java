@@ -0,0 +1,68 @@
+package com.aiqfome.aiqchart.renderer;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import com.aiqfome.aiqchart.benchmark.ChartFixtures;
+import com.aiqfome.aiqchart.model.ChartSet;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+
+@RunWith(Parameterized.class)
+public class AxisRendererBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final int mSize;
+
+    private ArrayList<ChartSet> mData;
+
+    private YRenderer mRenderer;
+
+
+    public AxisRendererBenchmark(int size) {
+
+        mSize = size;
+    }
+
+    @Parameterized.Parameters(name = "size={0}")
+    public static Collection<Object[]> sizes() {
+
+        return ChartFixtures.sizes();
+    }
+
+    @Before
+    public void setUp() {
+
+        mData = new ArrayList<>();
+        mData.add(ChartFixtures.lineSet(mSize));
+        mRenderer = new YRenderer();
+    }
+
+
+    @Test
+    public void findBorders() {
+
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning())
+            mRenderer.findBorders(mData);
+    }
+
+    @Test
+    public void calculateValues() {
+
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning())
+            mRenderer.calculateValues(0, mSize, 1);
+    }
+
+}
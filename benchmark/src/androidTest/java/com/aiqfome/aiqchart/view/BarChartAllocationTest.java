@@ -0,0 +1,158 @@
+package com.aiqfome.aiqchart.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+
+import com.aiqfome.aiqchart.benchmark.ChartActivity;
+import com.aiqfome.aiqchart.benchmark.ChartFixtures;
+import com.aiqfome.aiqchart.model.BarSet;
+import com.aiqfome.aiqchart.model.ChartSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Checks bar charts don't allocate while drawing, once warmed up.
+ */
+@RunWith(Parameterized.class)
+public class BarChartAllocationTest {
+
+    private static final int SIZE = 1000;
+
+    /**
+     * Frames drawn before counting, letting the charts lay out and cache what they need
+     */
+    private static final int WARM_UP_FRAMES = 10;
+
+    private static final int FRAMES = 100;
+
+    @Rule
+    public ActivityScenarioRule<ChartActivity> activityRule =
+            new ActivityScenarioRule<>(ChartActivity.class);
+
+    private final String mType;
+
+    private BaseBarChartView mChart;
+
+    private Bitmap mBitmap;
+
+    private Canvas mCanvas;
+
+
+    public BarChartAllocationTest(String type) {
+
+        mType = type;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> types() {
+
+        return Arrays.asList(new Object[][]{
+                {"bar"}, {"horizontalBar"}, {"stackBar"}, {"horizontalStackBar"}});
+    }
+
+    @Before
+    public void setUp() {
+
+        if (mType.equals("bar"))
+            mChart = ChartFixtures.barChart(activityRule.getScenario(), SIZE);
+        else if (mType.equals("horizontalBar"))
+            mChart = ChartFixtures.horizontalBarChart(activityRule.getScenario(), SIZE);
+        else if (mType.equals("stackBar"))
+            mChart = ChartFixtures.stackBarChart(activityRule.getScenario(), SIZE);
+        else
+            mChart = ChartFixtures.horizontalStackBarChart(activityRule.getScenario(), SIZE);
+
+        mBitmap = Bitmap.createBitmap(ChartFixtures.WIDTH, ChartFixtures.HEIGHT,
+                Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(mBitmap);
+    }
+
+    @After
+    public void tearDown() {
+
+        mBitmap.recycle();
+    }
+
+
+    @Test
+    public void drawChart() {
+
+        assertEquals(0, countAllocations());
+    }
+
+    @Test
+    public void drawChartWithStyle() {
+
+        ChartFixtures.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+
+                mChart.setBarBackgroundColor(0xFFEEEEEE);
+                mChart.setRoundCorners(8);
+            }
+        });
+        assertEquals(0, countAllocations());
+    }
+
+    @Test
+    public void drawChartWithGradient() {
+
+        ChartFixtures.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+
+                // Every set uses the same arrays, as gradients are cached by their colors
+                final int[] colors = {0xFF009688, 0xFF3F51B5};
+                final float[] positions = {0, 1};
+                for (ChartSet set : mChart.getData())
+                    ((BarSet) set).setGradientColor(colors, positions);
+            }
+        });
+        assertEquals(0, countAllocations());
+    }
+
+
+    /**
+     * Draws the chart data on the main thread as a frame would, counting allocations made
+     * by the main thread meanwhile. Nothing else runs on it until drawing finishes.
+     *
+     * @return Number of allocations made while drawing, warm up excluded.
+     */
+    private int countAllocations() {
+
+        final int[] result = new int[1];
+        ChartFixtures.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+
+                final ArrayList<ChartSet> data = mChart.getData();
+                for (int i = 0; i < WARM_UP_FRAMES; i++)
+                    mChart.onDrawChart(mCanvas, data);
+
+                Debug.startAllocCounting();
+                Debug.resetThreadAllocCount();
+                for (int i = 0; i < FRAMES; i++)
+                    mChart.onDrawChart(mCanvas, data);
+                result[0] = Debug.getThreadAllocCount();
+                Debug.stopAllocCounting();
+            }
+        });
+        return result[0];
+    }
+
+}
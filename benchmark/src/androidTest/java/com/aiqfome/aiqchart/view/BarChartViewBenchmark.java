@@ -0,0 +1,67 @@
+package com.aiqfome.aiqchart.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+
+import com.aiqfome.aiqchart.benchmark.ChartActivity;
+import com.aiqfome.aiqchart.benchmark.ChartFixtures;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Collection;
+
+
+@RunWith(Parameterized.class)
+public class BarChartViewBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Rule
+    public ActivityScenarioRule<ChartActivity> activityRule =
+            new ActivityScenarioRule<>(ChartActivity.class);
+
+    private final int mSize;
+
+    private BarChartView mChart;
+
+
+    public BarChartViewBenchmark(int size) {
+
+        mSize = size;
+    }
+
+    @Parameterized.Parameters(name = "size={0}")
+    public static Collection<Object[]> sizes() {
+
+        return ChartFixtures.sizes();
+    }
+
+    @Before
+    public void setUp() {
+
+        mChart = ChartFixtures.barChart(activityRule.getScenario(), mSize);
+    }
+
+
+    @Test
+    public void draw() {
+
+        final Bitmap bitmap = Bitmap.createBitmap(ChartFixtures.WIDTH, ChartFixtures.HEIGHT,
+                Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(bitmap);
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning())
+            mChart.draw(canvas);
+        bitmap.recycle();
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.aiqfome.aiqchart.view;
+
+import android.graphics.Rect;
+
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.aiqfome.aiqchart.benchmark.ChartActivity;
+import com.aiqfome.aiqchart.benchmark.ChartFixtures;
+import com.aiqfome.aiqchart.model.ChartSet;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Checks charts shown asynchronously are laid out the same as when shown on the UI thread.
+ */
+@RunWith(Parameterized.class)
+public class ChartViewAsyncTest {
+
+    private static final int SIZE = 100;
+
+    @Rule
+    public ActivityScenarioRule<ChartActivity> activityRule =
+            new ActivityScenarioRule<>(ChartActivity.class);
+
+    private final String mType;
+
+    private final ExecutorService mExecutor = Executors.newSingleThreadExecutor();
+
+
+    public ChartViewAsyncTest(String type) {
+
+        mType = type;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> types() {
+
+        return Arrays.asList(new Object[][]{
+                {"line"}, {"bar"}, {"horizontalBar"}, {"stackBar"}, {"horizontalStackBar"}});
+    }
+
+    @After
+    public void tearDown() {
+
+        mExecutor.shutdown();
+    }
+
+
+    @Test
+    public void sameLayout() throws Exception {
+
+        final ChartView chart = chart();
+        final Layout expected = new Layout(chart);
+
+        ChartFixtures.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+
+                chart.showAsync(mExecutor);
+                chart.getViewTreeObserver().dispatchOnPreDraw();
+            }
+        });
+        // Wait for the layout in background, then for it to be swapped in
+        mExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }).get();
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+
+        final Layout actual = new Layout(chart);
+        for (int i = 0; i < expected.x.length; i++) {
+            assertArrayEquals(expected.x[i], actual.x[i], 0);
+            assertArrayEquals(expected.y[i], actual.y[i], 0);
+            assertEquals(expected.areas.get(i), actual.areas.get(i));
+        }
+    }
+
+
+    private ChartView chart() {
+
+        if (mType.equals("line"))
+            return ChartFixtures.lineChart(activityRule.getScenario(), SIZE);
+        if (mType.equals("bar"))
+            return ChartFixtures.barChart(activityRule.getScenario(), SIZE);
+        if (mType.equals("horizontalBar"))
+            return ChartFixtures.horizontalBarChart(activityRule.getScenario(), SIZE);
+        if (mType.equals("stackBar"))
+            return ChartFixtures.stackBarChart(activityRule.getScenario(), SIZE);
+        return ChartFixtures.horizontalStackBarChart(activityRule.getScenario(), SIZE);
+    }
+
+
+    /**
+     * Display coordinates and entries areas of a chart, read on the main thread.
+     */
+    private static class Layout {
+
+        float[][] x;
+
+        float[][] y;
+
+        final ArrayList<ArrayList<Rect>> areas = new ArrayList<>();
+
+
+        Layout(final ChartView chart) {
+
+            ChartFixtures.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+
+                    final ArrayList<ChartSet> data = chart.getData();
+                    x = new float[data.size()][];
+                    y = new float[data.size()][];
+                    for (int i = 0; i < data.size(); i++) {
+                        x[i] = new float[data.get(i).size()];
+                        y[i] = new float[data.get(i).size()];
+                        for (int j = 0; j < data.get(i).size(); j++) {
+                            x[i][j] = data.get(i).getX(j);
+                            y[i][j] = data.get(i).getY(j);
+                        }
+                        areas.add(chart.getEntriesArea(i));
+                    }
+                }
+            });
+        }
+
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.aiqfome.aiqchart.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Path;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+
+import com.aiqfome.aiqchart.benchmark.ChartActivity;
+import com.aiqfome.aiqchart.benchmark.ChartFixtures;
+import com.aiqfome.aiqchart.model.LineSet;
+import com.aiqfome.aiqchart.util.Downsampler;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Collection;
+
+
+@RunWith(Parameterized.class)
+public class LineChartViewBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Rule
+    public ActivityScenarioRule<ChartActivity> activityRule =
+            new ActivityScenarioRule<>(ChartActivity.class);
+
+    private final int mSize;
+
+    private LineChartView mChart;
+
+
+    public LineChartViewBenchmark(int size) {
+
+        mSize = size;
+    }
+
+    @Parameterized.Parameters(name = "size={0}")
+    public static Collection<Object[]> sizes() {
+
+        return ChartFixtures.sizes();
+    }
+
+    @Before
+    public void setUp() {
+
+        mChart = ChartFixtures.lineChart(activityRule.getScenario(), mSize);
+    }
+
+
+    @Test
+    public void digestData() {
+
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning())
+            mChart.digestData();
+    }
+
+    @Test
+    public void defineRegions() {
+
+        final EntryRegions regions = new EntryRegions();
+        regions.reset(1, mSize);
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning())
+            mChart.defineRegions(regions, mChart.getData());
+    }
+
+    @Test
+    public void createSmoothLinePath() {
+
+        final LineSet set = (LineSet) mChart.getData().get(0);
+        final int[] indexes = new int[mSize];
+        final int count = Downsampler.sequence(0, mSize, indexes);
+        final Path path = new Path();
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            path.rewind();
+            mChart.createSmoothLinePath(set, indexes, count, path);
+        }
+    }
+
+    @Test
+    public void draw() {
+
+        final Bitmap bitmap = Bitmap.createBitmap(ChartFixtures.WIDTH, ChartFixtures.HEIGHT,
+                Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(bitmap);
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning())
+            mChart.draw(canvas);
+        bitmap.recycle();
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.aiqfome.aiqchart.view;
+
+import android.graphics.Rect;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import androidx.test.ext.junit.rules.ActivityScenarioRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.aiqfome.aiqchart.benchmark.ChartActivity;
+import com.aiqfome.aiqchart.benchmark.ChartFixtures;
+import com.aiqfome.aiqchart.listener.OnEntryClickListener;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+
+/**
+ * Checks taps on stacked bars reach only the sets being drawn.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StackBarChartViewRegionsTest {
+
+    @Rule
+    public ActivityScenarioRule<ChartActivity> activityRule =
+            new ActivityScenarioRule<>(ChartActivity.class);
+
+    private StackBarChartView mChart;
+
+    /**
+     * Set of the last entry clicked, -1 if none
+     */
+    private int mClickedSet;
+
+
+    @Before
+    public void setUp() {
+
+        mChart = ChartFixtures.stackBarChart(activityRule.getScenario(), 10);
+        ChartFixtures.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+
+                mChart.setOnEntryClickListener(new OnEntryClickListener() {
+                    @Override
+                    public void onClick(int setIndex, int entryIndex, Rect rect) {
+
+                        mClickedSet = setIndex;
+                    }
+                });
+            }
+        });
+    }
+
+
+    @Test
+    public void tapOnDismissedSet() {
+
+        final int[] clicked = new int[2];
+        ChartFixtures.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+
+                // Middle of the second set's first segment
+                final Rect area = mChart.getEntriesArea(1).get(0);
+                final int x = area.centerX() + mChart.getPaddingLeft();
+                final int y = area.centerY() + mChart.getPaddingTop();
+
+                mClickedSet = -1;
+                tap(x, y);
+                clicked[0] = mClickedSet;
+
+                mChart.dismiss(1);
+                mClickedSet = -1;
+                tap(x, y);
+                clicked[1] = mClickedSet;
+            }
+        });
+
+        assertEquals(1, clicked[0]);
+        // Either nothing or the set now stacked in its place
+        assertNotEquals(1, clicked[1]);
+    }
+
+
+    private void tap(int x, int y) {
+
+        final long time = SystemClock.uptimeMillis();
+        final MotionEvent down = MotionEvent.obtain(time, time, MotionEvent.ACTION_DOWN, x, y, 0);
+        final MotionEvent up = MotionEvent.obtain(time, time, MotionEvent.ACTION_UP, x, y, 0);
+        mChart.onTouchEvent(down);
+        mChart.onTouchEvent(up);
+        down.recycle();
+        up.recycle();
+    }
+
+}